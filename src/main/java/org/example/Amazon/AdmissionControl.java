@@ -0,0 +1,259 @@
+package org.example.Amazon;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds how many callers may be inside {@link Database#withSql} at once. Callers over
+ * the limit wait in a bounded queue for at most {@code maxWait}; when the queue is full
+ * or the wait runs out they get an {@link OverloadedException} straight away, so that
+ * callers already admitted keep a bounded latency.
+ *
+ * The limit itself is a {@link Limit}: either fixed, or adapted to observed latency
+ * with {@link #aimd} or {@link #vegas}.
+ */
+public class AdmissionControl {
+
+    /**
+     * Concurrency limit fed with the latency of every completed call. Always called
+     * under the admission lock, so implementations need no synchronization of their own.
+     */
+    public interface Limit {
+        int current();
+
+        void onSample(long latencyNanos, int inFlight, boolean failed);
+    }
+
+    private final Limit limit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private int inFlight;
+    private int queued;
+    private long admitted;
+    private long rejected;
+
+    public AdmissionControl(Limit limit, int maxQueue, Duration maxWait) {
+        if (maxQueue < 0 || maxWait.isNegative())
+            throw new IllegalArgumentException("queue size and wait must not be negative");
+
+        this.limit = limit;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public static Limit fixed(int limit) {
+        if (limit <= 0)
+            throw new IllegalArgumentException("limit must be positive");
+        return new Limit() {
+            @Override
+            public int current() {
+                return limit;
+            }
+
+            @Override
+            public void onSample(long latencyNanos, int inFlight, boolean failed) {
+            }
+        };
+    }
+
+    /**
+     * Additive increase, multiplicative decrease: the limit grows by one for every call
+     * that finishes within {@code latencyTarget} while the limit is fully used, and is
+     * cut by 10% for every call that fails or is slower than the target.
+     */
+    public static Limit aimd(int initial, int min, int max, Duration latencyTarget) {
+        checkBounds(initial, min, max);
+        return new Aimd(initial, min, max, latencyTarget.toNanos());
+    }
+
+    /**
+     * TCP Vegas style: estimates how many calls are queueing inside the database from
+     * the ratio of the fastest latency seen to the current one, and grows the limit while
+     * fewer than 3 are queueing and shrinks it once more than 6 are. The fastest latency
+     * is forgotten and measured again every 1000 samples, so a baseline that has risen
+     * for good (a bigger table, a file-backed store) does not pin the limit at {@code min}.
+     */
+    public static Limit vegas(int initial, int min, int max) {
+        checkBounds(initial, min, max);
+        return new Vegas(initial, min, max);
+    }
+
+    private static void checkBounds(int initial, int min, int max) {
+        if (min <= 0 || min > initial || initial > max)
+            throw new IllegalArgumentException("need 0 < min <= initial <= max");
+    }
+
+    /**
+     * Waits for a slot and returns the admission time to pass to {@link #release}.
+     */
+    public long acquire() {
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < limit.current())
+                return admit();
+
+            if (queued >= maxQueue) {
+                rejected++;
+                throw new OverloadedException("database overloaded: " + inFlight + " in flight, " + queued + " queued");
+            }
+
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= limit.current()) {
+                    if (remaining <= 0) {
+                        rejected++;
+                        throw new OverloadedException("database overloaded: waited " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected++;
+                throw new OverloadedException("interrupted while queued for the database");
+            } finally {
+                queued--;
+            }
+            return admit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long admit() {
+        inFlight++;
+        admitted++;
+        return System.nanoTime();
+    }
+
+    public void release(long admittedAt, boolean failed) {
+        lock.lock();
+        try {
+            limit.onSample(System.nanoTime() - admittedAt, inFlight, failed);
+            inFlight--;
+            for (int free = limit.current() - inFlight; free > 0; free--)
+                available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int currentLimit() {
+        lock.lock();
+        try {
+            return limit.current();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long admittedCount() {
+        lock.lock();
+        try {
+            return admitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rejectedCount() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Aimd implements Limit {
+        private final int min;
+        private final int max;
+        private final long targetNanos;
+        private int limit;
+
+        Aimd(int initial, int min, int max, long targetNanos) {
+            this.limit = initial;
+            this.min = min;
+            this.max = max;
+            this.targetNanos = targetNanos;
+        }
+
+        @Override
+        public int current() {
+            return limit;
+        }
+
+        @Override
+        public void onSample(long latencyNanos, int inFlight, boolean failed) {
+            if (failed || latencyNanos > targetNanos)
+                limit = Math.max(min, (int) (limit * 0.9));
+            else if (inFlight >= limit)
+                limit = Math.min(max, limit + 1);
+        }
+    }
+
+    private static class Vegas implements Limit {
+        private static final int ALPHA = 3;
+        private static final int BETA = 6;
+        private static final int PROBE_INTERVAL = 1000;
+
+        private final int min;
+        private final int max;
+        private int limit;
+        private long minLatencyNanos = Long.MAX_VALUE;
+        private int samplesSinceProbe;
+
+        Vegas(int initial, int min, int max) {
+            this.limit = initial;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public int current() {
+            return limit;
+        }
+
+        @Override
+        public void onSample(long latencyNanos, int inFlight, boolean failed) {
+            if (failed) {
+                limit = Math.max(min, (int) (limit * 0.9));
+                return;
+            }
+            if (++samplesSinceProbe >= PROBE_INTERVAL) {
+                samplesSinceProbe = 0;
+                minLatencyNanos = Long.MAX_VALUE;
+            }
+            minLatencyNanos = Math.min(minLatencyNanos, Math.max(1, latencyNanos));
+
+            double queueing = limit * (1 - (double) minLatencyNanos / Math.max(1, latencyNanos));
+            if (queueing < ALPHA && inFlight * 2 >= limit)
+                limit = Math.min(max, limit + 1);
+            else if (queueing > BETA)
+                limit = Math.max(min, limit - 1);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.Amazon;
 
 import org.example.Amazon.Cost.PriceRule;
+import org.example.Money;
 
 import java.util.List;
 
@@ -14,11 +15,12 @@ public class Amazon {
         this.rules = rules;
     }
 
-    public double calculate() {
-        double finalPrice = 0;
+    // total in cents
+    public long calculate() {
+        long finalPrice = 0;
 
         for (PriceRule rule : rules) {
-            finalPrice += rule.priceToAggregate(carts.getItems());
+            finalPrice = Money.plus(finalPrice, rule.priceToAggregate(carts.getItems()));
         }
 
         return finalPrice;
@@ -0,0 +1,126 @@
+package org.example.Amazon.Cost;
+
+import org.example.Amazon.Item;
+import org.example.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fork-join evaluation of a single large cart. Carts of up to {@code threshold} items
+ * are evaluated on the calling thread; larger ones are split in halves until each chunk
+ * holds at most {@code threshold} items. Sums are exact cents with overflow checks, so
+ * the total does not depend on how the chunks were scheduled.
+ */
+final class CartTasks {
+
+    static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 15;
+
+    private CartTasks() {
+    }
+
+    static long sum(List<Item> cart, ToLongFunction<Item> value, int threshold) {
+        List<Item> items = randomAccess(cart);
+        if (items.size() <= threshold)
+            return sumRange(items, 0, items.size(), value);
+
+        return ForkJoinPool.commonPool().invoke(new SumTask(items, 0, items.size(), value, threshold));
+    }
+
+    static boolean anyMatch(List<Item> cart, Predicate<Item> predicate, int threshold) {
+        List<Item> items = randomAccess(cart);
+        if (items.size() <= threshold)
+            return items.stream().anyMatch(predicate);
+
+        AtomicBoolean found = new AtomicBoolean();
+        ForkJoinPool.commonPool().invoke(new MatchTask(items, 0, items.size(), predicate, threshold, found));
+        return found.get();
+    }
+
+    static void checkThreshold(int threshold) {
+        if (threshold <= 0)
+            throw new IllegalArgumentException("parallel threshold must be positive");
+    }
+
+    private static List<Item> randomAccess(List<Item> cart) {
+        return cart instanceof RandomAccess ? cart : new ArrayList<>(cart);
+    }
+
+    private static long sumRange(List<Item> items, int from, int to, ToLongFunction<Item> value) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = Money.plus(sum, value.applyAsLong(items.get(i)));
+        }
+        return sum;
+    }
+
+    private static class SumTask extends RecursiveTask<Long> {
+        private final List<Item> items;
+        private final int from;
+        private final int to;
+        private final ToLongFunction<Item> value;
+        private final int threshold;
+
+        SumTask(List<Item> items, int from, int to, ToLongFunction<Item> value, int threshold) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.value = value;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold)
+                return sumRange(items, from, to, value);
+
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(items, from, mid, value, threshold);
+            left.fork();
+            long right = new SumTask(items, mid, to, value, threshold).compute();
+
+            return Money.plus(left.join(), right);
+        }
+    }
+
+    private static class MatchTask extends RecursiveTask<Void> {
+        private final List<Item> items;
+        private final int from;
+        private final int to;
+        private final Predicate<Item> predicate;
+        private final int threshold;
+        private final AtomicBoolean found;
+
+        MatchTask(List<Item> items, int from, int to, Predicate<Item> predicate, int threshold, AtomicBoolean found) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.predicate = predicate;
+            this.threshold = threshold;
+            this.found = found;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to && !found.get(); i++) {
+                    if (predicate.test(items.get(i))) {
+                        found.set(true);
+                    }
+                }
+                return null;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new MatchTask(items, from, mid, predicate, threshold, found),
+                    new MatchTask(items, mid, to, predicate, threshold, found));
+            return null;
+        }
+    }
+}
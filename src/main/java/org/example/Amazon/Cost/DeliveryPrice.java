@@ -6,17 +6,17 @@ import java.util.List;
 
 public class DeliveryPrice implements PriceRule {
     @Override
-    public double priceToAggregate(List<Item> cart) {
+    public long priceToAggregate(List<Item> cart) {
 
         int totalItems = cart.size();
 
         if(totalItems == 0)
             return 0;
         if(totalItems >= 1 && totalItems <= 3)
-            return 5;
+            return 500;
         if(totalItems >= 4 && totalItems <= 10)
-            return 12.5;
+            return 1250;
 
-        return 20.0;
+        return 2000;
     }
 }
@@ -5,12 +5,27 @@ import org.example.Amazon.Item;
 import java.util.List;
 
 public class ExtraCostForElectronics implements PriceRule {
+
+    private final int parallelThreshold;
+
+    public ExtraCostForElectronics() {
+        this(CartTasks.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Carts with more than {@code parallelThreshold} items are scanned in parallel chunks.
+     */
+    public ExtraCostForElectronics(int parallelThreshold) {
+        CartTasks.checkThreshold(parallelThreshold);
+        this.parallelThreshold = parallelThreshold;
+    }
+
     @Override
-    public double priceToAggregate(List<Item> cart) {
-        boolean hasAnElectronicDevice = cart.stream().anyMatch(it -> it.getType() == ItemType.ELECTRONIC);
+    public long priceToAggregate(List<Item> cart) {
+        boolean hasAnElectronicDevice = CartTasks.anyMatch(cart, it -> it.getType() == ItemType.ELECTRONIC, parallelThreshold);
 
         if(hasAnElectronicDevice)
-            return 7.50;
+            return 750;
 
         return 0;
     }
@@ -4,6 +4,9 @@ import org.example.Amazon.Item;
 
 import java.util.List;
 
+/**
+ * A pricing rule; amounts are in cents, see {@link org.example.Money}.
+ */
 public interface PriceRule {
-    double priceToAggregate(List<Item> cart);
+    long priceToAggregate(List<Item> cart);
 }
@@ -1,18 +1,28 @@
 package org.example.Amazon.Cost;
 
 import org.example.Amazon.Item;
+import org.example.Money;
 
 import java.util.List;
 
 public class RegularCost implements PriceRule {
-    @Override
-    public double priceToAggregate(List<Item> cart) {
 
-        double price = 0;
-        for (Item item : cart) {
-            price += item.getPricePerUnit() * item.getQuantity();
-        }
+    private final int parallelThreshold;
+
+    public RegularCost() {
+        this(CartTasks.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Carts with more than {@code parallelThreshold} items are summed in parallel chunks.
+     */
+    public RegularCost(int parallelThreshold) {
+        CartTasks.checkThreshold(parallelThreshold);
+        this.parallelThreshold = parallelThreshold;
+    }
 
-        return price;
+    @Override
+    public long priceToAggregate(List<Item> cart) {
+        return CartTasks.sum(cart, item -> Money.times(item.getPricePerUnit(), item.getQuantity()), parallelThreshold);
     }
 }
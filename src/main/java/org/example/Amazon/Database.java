@@ -3,37 +3,109 @@ package org.example.Amazon;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * This is a very naive database connection class.
  * In real life, you should make use of a decent database API,
  * such as Spring Data or Hibernate.
+ *
+ * By default the cart lives in an HSQLDB in-memory database. Use
+ * {@link #fileBacked(String, int, int)} to keep it in CACHED tables on disk
+ * instead, so only a bounded number of rows is held on the heap.
  */
 public class Database {
 
-    private static Connection connection;
+    private static final String MEMORY_URL = "jdbc:hsqldb:mem:mymemdb.db";
+
+    // smallest cache budget HSQLDB accepts; lower values are silently replaced by its defaults
+    static final int MIN_CACHE_ROWS = 100;
+    static final int MIN_CACHE_SIZE_KB = 100;
+
+    private final String url;
+    private final boolean cached;
+    private Connection connection;
+    private volatile AdmissionControl admissionControl;
 
     public Database() {
-        if(connection !=null) return;
+        this(MEMORY_URL, false);
+    }
+
+    Database(String url, boolean cached) {
+        this(url, cached, List.of(shoppingCartTable(cached)));
+    }
+
+    /**
+     * Connects to {@code url} and runs {@code setupSql} in order, instead of creating the
+     * default shoppingcart table.
+     */
+    Database(String url, boolean cached, List<String> setupSql) {
+        this.url = url;
+        this.cached = cached;
 
         withSql(() -> {
-            connection = DriverManager.getConnection("jdbc:hsqldb:mem:mymemdb.db", "SA", "");
-            try (var preparedStatement = connection.prepareStatement("create table if not exists shoppingcart (type varchar(100), name varchar(100), " +
-                    " quantity int, priceperunit double)")) {
-                preparedStatement.execute();
-                connection.commit();
+            connection = DriverManager.getConnection(url, "SA", "");
+            for (String sql : setupSql) {
+                try (var preparedStatement = connection.prepareStatement(sql)) {
+                    preparedStatement.execute();
+                }
             }
+            connection.commit();
             return null;
         });
     }
 
+    private static String shoppingCartTable(boolean cached) {
+        return "create " + (cached ? "cached " : "") +
+                "table if not exists shoppingcart (type varchar(100), name varchar(100), " +
+                " quantity int, priceperunit bigint)";
+    }
+
+    /**
+     * Opens (or creates) a file-backed cart store at {@code path}. Rows are kept in
+     * HSQLDB CACHED tables, which are paged in on demand rather than loaded at startup;
+     * at most {@code cacheRows} rows and {@code cacheSizeKb} kilobytes of row data are
+     * held in memory at any time. The budget is applied on every open, so an existing
+     * store can be reopened with a different one. HSQLDB needs at least
+     * {@value #MIN_CACHE_ROWS} rows and {@value #MIN_CACHE_SIZE_KB} KB.
+     */
+    public static Database fileBacked(String path, int cacheRows, int cacheSizeKb) {
+        if (cacheRows < MIN_CACHE_ROWS || cacheSizeKb < MIN_CACHE_SIZE_KB)
+            throw new IllegalArgumentException("cache budget must be at least " + MIN_CACHE_ROWS + " rows and "
+                    + MIN_CACHE_SIZE_KB + " KB");
+
+        // the hsqldb.cache_* URL properties only apply when the database is created, so set them explicitly
+        return new Database("jdbc:hsqldb:file:" + path + ";shutdown=true;hsqldb.default_table_type=cached", true,
+                List.of("set files cache rows " + cacheRows,
+                        "set files cache size " + cacheSizeKb,
+                        shoppingCartTable(true)));
+    }
+
     public Connection getConnection() {
         return connection;
     }
 
+    public boolean isFileBacked() {
+        return cached;
+    }
+
+    /**
+     * Routes every {@link #withSql} call through {@code admissionControl}, or through
+     * nothing when it is {@code null}. Calls turned away throw {@link OverloadedException}.
+     */
+    public void setAdmissionControl(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    public AdmissionControl getAdmissionControl() {
+        return admissionControl;
+    }
+
     public void resetDatabase() {
         withSql(() -> {
-            connection = DriverManager.getConnection("jdbc:hsqldb:mem:mymemdb.db", "SA", "");
+            if (connection == null || connection.isClosed()) {
+                connection = DriverManager.getConnection(url, "SA", "");
+            }
             try (var preparedStatement = connection.prepareStatement("delete from shoppingcart")) {
                 preparedStatement.execute();
                 connection.commit();
@@ -46,16 +118,30 @@ public class Database {
         T doSql() throws SQLException;
     }
     public <T> T withSql(SqlSupplier<T> sqlSupplier) {
+        AdmissionControl admission = admissionControl;
+        long admittedAt = admission != null ? admission.acquire() : 0;
+        boolean failed = true;
         try {
-            return sqlSupplier.doSql();
+            T result = sqlSupplier.doSql();
+            failed = false;
+            return result;
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            if (admission != null)
+                admission.release(admittedAt, failed);
         }
     }
 
     public void close() {
         withSql( () -> {
             if (connection != null) {
+                if (cached) {
+                    // flush the cache and truncate the log so the next open does not replay it
+                    try (var preparedStatement = connection.prepareStatement("checkpoint")) {
+                        preparedStatement.execute();
+                    }
+                }
                 connection.close();
             }
             return null;
@@ -64,4 +150,4 @@ public class Database {
     }
 
 
-}
\ No newline at end of file
+}
@@ -7,9 +7,12 @@ public class Item {
     private final ItemType type;
     private final String name;
     private final int quantity;
-    private final double pricePerUnit;
+    private final long pricePerUnit;
 
-    public Item(ItemType type, String name, int quantity, double pricePerUnit) {
+    /**
+     * @param pricePerUnit price of one unit in cents, see {@link org.example.Money}
+     */
+    public Item(ItemType type, String name, int quantity, long pricePerUnit) {
         this.type = type;
         this.name = name;
         this.quantity = quantity;
@@ -28,7 +31,7 @@ public class Item {
         return quantity;
     }
 
-    public double getPricePerUnit() {
+    public long getPricePerUnit() {
         return pricePerUnit;
     }
 }
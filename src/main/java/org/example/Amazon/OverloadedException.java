@@ -0,0 +1,12 @@
+package org.example.Amazon;
+
+/**
+ * Thrown when {@link AdmissionControl} turns a database call away instead of letting
+ * it queue: the wait queue is full or the caller waited longer than allowed.
+ */
+public class OverloadedException extends RuntimeException {
+
+    public OverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.Amazon;
+
+import org.example.Amazon.Cost.ItemType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Spreads many carts over several independent in-memory databases so that writes to
+ * different carts do not contend on one engine and one table. A cart always lives in
+ * the shard picked by hashing its id; reads of a single cart only touch that shard,
+ * while {@link #fanOut(Function)} queries every shard in parallel for cross-cart reports.
+ */
+public class ShardedCartStore {
+
+    private static final AtomicInteger STORES = new AtomicInteger();
+
+    private final Database[] shards;
+
+    public ShardedCartStore() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ShardedCartStore(int shardCount) {
+        if (shardCount <= 0)
+            throw new IllegalArgumentException("shardCount must be positive");
+
+        int store = STORES.incrementAndGet();
+        shards = new Database[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            // shards only need their own table, not the default shoppingcart one
+            shards[i] = new Database("jdbc:hsqldb:mem:cartshard" + store + "_" + i + ";shutdown=true", false, List.of(
+                    "create table cartitem (cartid varchar(100), type varchar(100), name varchar(100), " +
+                            " quantity int, priceperunit bigint)",
+                    "create index cartitem_cartid on cartitem (cartid)"));
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    int shardFor(String cartId) {
+        int h = cartId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    /**
+     * Returns the cart with the given id. All of its operations stay on its own shard.
+     */
+    public ShoppingCart cart(String cartId) {
+        return new ShardCart(shards[shardFor(cartId)], cartId);
+    }
+
+    /**
+     * Runs {@code query} against every shard at once and returns the per-shard results
+     * in shard order.
+     */
+    public <T> List<T> fanOut(Function<Database, T> query) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Database shard : shards)
+                futures.add(executor.submit(() -> query.apply(shard)));
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures)
+                results.add(future.get());
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Every cart in the store with its items.
+     */
+    public Map<String, List<Item>> itemsByCart() {
+        Map<String, List<Item>> carts = new HashMap<>();
+        for (Map<String, List<Item>> shardCarts : fanOut(shard -> shard.withSql(() -> {
+            try (var ps = shard.getConnection().prepareStatement("select * from cartitem")) {
+                final var rs = ps.executeQuery();
+
+                Map<String, List<Item>> byCart = new HashMap<>();
+                while (rs.next()) {
+                    byCart.computeIfAbsent(rs.getString("cartid"), id -> new ArrayList<>()).add(toItem(rs));
+                }
+                return byCart;
+            }
+        }))) {
+            carts.putAll(shardCarts);
+        }
+        return carts;
+    }
+
+    public void resetDatabase() {
+        fanOut(shard -> shard.withSql(() -> {
+            try (var ps = shard.getConnection().prepareStatement("delete from cartitem")) {
+                ps.execute();
+                shard.getConnection().commit();
+            }
+            return null;
+        }));
+    }
+
+    public void close() {
+        for (Database shard : shards)
+            shard.close();
+    }
+
+    private static Item toItem(ResultSet rs) throws SQLException {
+        return new Item(ItemType.valueOf(rs.getString("type")), rs.getString("name"),
+                rs.getInt("quantity"), rs.getLong("priceperunit"));
+    }
+
+    private static class ShardCart implements ShoppingCart {
+
+        private final Database shard;
+        private final String cartId;
+
+        ShardCart(Database shard, String cartId) {
+            this.shard = shard;
+            this.cartId = cartId;
+        }
+
+        @Override
+        public void add(Item item) {
+            shard.withSql(() -> {
+                try (var ps = shard.getConnection().prepareStatement("insert into cartitem (cartid, name, type, quantity, priceperunit) values (?,?,?,?,?)")) {
+                    ps.setString(1, cartId);
+                    ps.setString(2, item.getName());
+                    ps.setString(3, item.getType().name());
+                    ps.setInt(4, item.getQuantity());
+                    ps.setLong(5, item.getPricePerUnit());
+                    ps.execute();
+
+                    shard.getConnection().commit();
+                }
+                return null;
+            });
+        }
+
+        @Override
+        public List<Item> getItems() {
+            return shard.withSql(() -> {
+                try (var ps = shard.getConnection().prepareStatement("select * from cartitem where cartid = ?")) {
+                    ps.setString(1, cartId);
+                    final var rs = ps.executeQuery();
+
+                    List<Item> items = new ArrayList<>();
+                    while (rs.next()) {
+                        items.add(toItem(rs));
+                    }
+                    return items;
+                }
+            });
+        }
+
+        @Override
+        public int numberOfItems() {
+            return shard.withSql(() -> {
+                try (var ps = shard.getConnection().prepareStatement("select count(*) from cartitem where cartid = ?")) {
+                    ps.setString(1, cartId);
+                    final var rs = ps.executeQuery();
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            });
+        }
+    }
+}
@@ -23,7 +23,7 @@ public class ShoppingCartAdaptor implements ShoppingCart {
                 ps.setString(1, item.getName());  // Sets the customer name in the query
                 ps.setString(2, item.getType().name());  // Sets the invoice value in the query
                 ps.setInt(3, item.getQuantity());  // Sets the invoice value in the query
-                ps.setDouble(4, item.getPricePerUnit());  // Sets the invoice value in the query
+                ps.setLong(4, item.getPricePerUnit());  // Sets the invoice value in the query
                 ps.execute();  // Executes the insert query
 
                 connection.getConnection().commit();  // Commits the transaction to make the changes permanent
@@ -41,7 +41,7 @@ public class ShoppingCartAdaptor implements ShoppingCart {
                 List<Item> ShoppingCart = new ArrayList<>();  // Creates a list to store all retrieved invoices
                 while (rs.next()) {  // Iterates through each row in the result set
                     ShoppingCart.add(new Item(ItemType.valueOf(rs.getString("type")),rs.getString("name"),
-                            rs.getInt("quantity"),rs.getDouble("priceperunit")));  // Creates a new Invoice object and adds it to the list
+                            rs.getInt("quantity"),rs.getLong("priceperunit")));  // Creates a new Invoice object and adds it to the list
                 }
 
                 return ShoppingCart;  //  Returns the list of all invoices
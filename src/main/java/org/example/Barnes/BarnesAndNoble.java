@@ -1,8 +1,12 @@
 package org.example.Barnes;
 
+import org.example.Money;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-class BarnesAndNoble {
+public class BarnesAndNoble {
 
     private BookDatabase bookDatabase;
     private BuyBookProcess process;
@@ -13,25 +17,43 @@ class BarnesAndNoble {
         this.process = process;
     }
 
-    private void retrieveBook(String ISBN, int quantity, PurchaseSummary purchaseSummary) {
+    private Book findBook(String ISBN) {
         Book book = bookDatabase.findByISBN(ISBN);
+        if (book == null)
+            throw new IllegalArgumentException("Unknown ISBN: " + ISBN);
+        return book;
+    }
+
+    // returns the quantity that can actually be bought
+    private int priceBook(Book book, int quantity, PurchaseSummary purchaseSummary) {
         if (book.getQuantity() < quantity) {
             purchaseSummary.addUnavailable(book, quantity - book.getQuantity());
             quantity = book.getQuantity();
         }
 
-        purchaseSummary.addToTotalPrice(quantity * book.getPrice());
-        process.buyBook(book, quantity);
+        purchaseSummary.addToTotalPrice(Money.times(book.getPrice(), quantity));
+        return quantity;
     }
 
     // get the total price in the cart.
+    // Every ISBN is looked up and priced before anything is bought, so an order that
+    // fails (unknown ISBN, overflowing total) buys nothing.
     public PurchaseSummary getPriceForCart(Map<String, Integer> order) {
         if(order==null)
             return null;
 
+        List<String> isbns = new ArrayList<>(order.keySet());
+        List<Book> books = new ArrayList<>();
+        for (String ISBN : isbns)
+            books.add(findBook(ISBN));
+
         PurchaseSummary purchaseSummary = new PurchaseSummary();
-        for (String ISBN : order.keySet())
-            retrieveBook(ISBN, order.get(ISBN), purchaseSummary);
+        int[] quantities = new int[books.size()];
+        for (int i = 0; i < books.size(); i++)
+            quantities[i] = priceBook(books.get(i), order.get(isbns.get(i)), purchaseSummary);
+
+        for (int i = 0; i < books.size(); i++)
+            process.buyBook(books.get(i), quantities[i]);
         return purchaseSummary;
     }
-}
\ No newline at end of file
+}
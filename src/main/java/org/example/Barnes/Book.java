@@ -4,16 +4,21 @@ import java.util.Objects;
 
 public class Book {
     private String ISBN;
-    private int price;
+    private long price;
     private int amount;
 
-    public Book(String ISBN, int price, int quantity) {
+    // price in cents, see org.example.Money
+    public Book(String ISBN, long price, int quantity) {
         this.ISBN = ISBN;
         this.price = price;
         this.amount = quantity;
     }
 
-    public int getPrice() {
+    public String getISBN() {
+        return ISBN;
+    }
+
+    public long getPrice() {
         return price;
     }
     public int getQuantity() {
@@ -0,0 +1,192 @@
+package org.example.Barnes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process {@link BookDatabase} in front of a slow backing catalog. Every book looked
+ * up is kept together with how often it was asked for and the catalog version it was
+ * read at.
+ *
+ * The hottest books can be written to a snapshot file with {@link #snapshot} (or
+ * periodically with {@link #scheduleSnapshots}) and loaded back with {@link #warmUp}
+ * before a freshly started node takes traffic. A cached book whose version no longer
+ * matches the catalog is still returned, and re-read from the catalog in the background.
+ *
+ * At most {@code capacity} books are kept. When a lookup or warm-up goes over it, the
+ * least requested books are evicted, down to nine tenths of the capacity so eviction
+ * does not run on every miss. Concurrent misses may overshoot the capacity briefly.
+ */
+public class CachingBookDatabase implements BookDatabase {
+
+    private static final class Entry {
+        final Book book;
+        final long version;
+        final LongAdder hits;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Book book, long version, LongAdder hits) {
+            this.book = book;
+            this.version = version;
+            this.hits = hits;
+        }
+    }
+
+    private final BookDatabase catalog;
+    private final LongSupplier catalogVersion;
+    private final Executor refresher;
+    private final int capacity;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder snapshotFailures = new LongAdder();
+    private volatile Exception lastSnapshotFailure;
+
+    public CachingBookDatabase(BookDatabase catalog, LongSupplier catalogVersion, int capacity) {
+        this(catalog, catalogVersion, capacity, Thread::startVirtualThread);
+    }
+
+    public CachingBookDatabase(BookDatabase catalog, LongSupplier catalogVersion, int capacity, Executor refresher) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+
+        this.catalog = catalog;
+        this.catalogVersion = catalogVersion;
+        this.capacity = capacity;
+        this.refresher = refresher;
+    }
+
+    @Override
+    public Book findByISBN(String ISBN) {
+        Entry entry = entries.get(ISBN);
+        if (entry == null)
+            return load(ISBN);
+
+        entry.hits.increment();
+        if (entry.version != catalogVersion.getAsLong())
+            refreshInBackground(ISBN, entry);
+        return entry.book;
+    }
+
+    private Book load(String ISBN) {
+        long version = catalogVersion.getAsLong();
+        Book book = catalog.findByISBN(ISBN);
+        if (book == null)
+            return null;
+
+        LongAdder hits = new LongAdder();
+        hits.increment();
+        Entry previous = entries.putIfAbsent(ISBN, new Entry(book, version, hits));
+        if (previous != null)
+            previous.hits.increment();
+        else
+            evictIfOverCapacity();
+        return book;
+    }
+
+    private void evictIfOverCapacity() {
+        if (entries.size() <= capacity || !evicting.compareAndSet(false, true))
+            return;
+
+        try {
+            int excess = entries.size() - (capacity - capacity / 10);
+            // hits are read once up front, so the sort sees stable keys
+            entries.entrySet().stream()
+                    .map(e -> Map.entry(e.getKey(), e.getValue().hits.sum()))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(Math.max(0, excess))
+                    .forEach(e -> entries.remove(e.getKey()));
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private void refreshInBackground(String ISBN, Entry stale) {
+        if (!stale.refreshing.compareAndSet(false, true))
+            return;
+
+        refresher.execute(() -> {
+            try {
+                long version = catalogVersion.getAsLong();
+                Book book = catalog.findByISBN(ISBN);
+                if (book == null)
+                    entries.remove(ISBN, stale);
+                else
+                    entries.replace(ISBN, stale, new Entry(book, version, stale.hits));
+            } finally {
+                stale.refreshing.set(false);
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the {@code maxBooks} most requested books to {@code file}.
+     */
+    public void snapshot(Path file, int maxBooks) throws IOException {
+        List<InventorySnapshot.Entry> hottest = entries.values().stream()
+                .map(e -> new InventorySnapshot.Entry(e.book, e.hits.sum(), e.version))
+                .sorted(Comparator.comparingLong((InventorySnapshot.Entry e) -> e.hits).reversed())
+                .limit(maxBooks)
+                .toList();
+        InventorySnapshot.write(file, hottest);
+    }
+
+    /**
+     * Takes a snapshot every {@code period} on {@code scheduler}. A failed snapshot keeps
+     * the previous file, is counted in {@link #snapshotFailures()} and kept as
+     * {@link #lastSnapshotFailure()}, and the next one still runs.
+     */
+    public ScheduledFuture<?> scheduleSnapshots(ScheduledExecutorService scheduler, Path file, int maxBooks, Duration period) {
+        return scheduler.scheduleAtFixedRate(() -> {
+            try {
+                snapshot(file, maxBooks);
+            } catch (IOException | RuntimeException e) {
+                lastSnapshotFailure = e;
+                snapshotFailures.increment();
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public long snapshotFailures() {
+        return snapshotFailures.sum();
+    }
+
+    // null until a scheduled snapshot has failed
+    public Exception lastSnapshotFailure() {
+        return lastSnapshotFailure;
+    }
+
+    /**
+     * Loads a snapshot written by {@link #snapshot} without touching the catalog. The
+     * file's sections are decoded in parallel. Books already cached are kept. Returns
+     * the number of books in the file, or 0 if there is no snapshot yet.
+     */
+    public int warmUp(Path file) throws IOException {
+        if (!Files.exists(file))
+            return 0;
+
+        int loaded = InventorySnapshot.load(file, e -> {
+            LongAdder hits = new LongAdder();
+            hits.add(e.hits);
+            entries.putIfAbsent(e.book.getISBN(), new Entry(e.book, e.version, hits));
+        });
+        evictIfOverCapacity();
+        return loaded;
+    }
+}
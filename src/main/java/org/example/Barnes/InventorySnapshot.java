@@ -0,0 +1,198 @@
+package org.example.Barnes;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary file of cached books. A header (magic, format version, entry count,
+ * section count) and a section table (byte length, entry count and CRC32 of each
+ * section) are followed by the sections themselves, each holding ISBN, price,
+ * quantity, access count and catalog version per book. Sections are independent, so
+ * they are decoded in parallel on load.
+ *
+ * Files are written next to the target and moved into place, so a reader never sees
+ * a half-written snapshot. Headers that do not add up to the file size are rejected
+ * with an {@link IOException} before anything is allocated, and so is any section
+ * whose checksum does not match or that does not decode to exactly its entries.
+ */
+final class InventorySnapshot {
+
+    static final int MAGIC = 0x424f4f4b; // "BOOK"
+    static final int FORMAT_VERSION = 3;
+    static final int ENTRIES_PER_SECTION = 4096;
+
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int SECTION_TABLE_BYTES = 3 * Integer.BYTES;
+    // empty ISBN: UTF length, then price, quantity, hits, version
+    private static final int MIN_ENTRY_BYTES = Short.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    static final class Entry {
+        final Book book;
+        final long hits;
+        final long version;
+
+        Entry(Book book, long hits, long version) {
+            this.book = book;
+            this.hits = hits;
+            this.version = version;
+        }
+    }
+
+    private InventorySnapshot() {
+    }
+
+    static void write(Path file, List<Entry> entries) throws IOException {
+        write(file, entries, ENTRIES_PER_SECTION);
+    }
+
+    static void write(Path file, List<Entry> entries, int entriesPerSection) throws IOException {
+        int sectionCount = (entries.size() + entriesPerSection - 1) / entriesPerSection;
+        byte[][] sections = new byte[sectionCount][];
+        for (int s = 0; s < sectionCount; s++) {
+            var bytes = new ByteArrayOutputStream();
+            try (var out = new DataOutputStream(bytes)) {
+                for (Entry entry : entries.subList(s * entriesPerSection, Math.min(entries.size(), (s + 1) * entriesPerSection))) {
+                    out.writeUTF(entry.book.getISBN());
+                    out.writeLong(entry.book.getPrice());
+                    out.writeInt(entry.book.getQuantity());
+                    out.writeLong(entry.hits);
+                    out.writeLong(entry.version);
+                }
+            }
+            sections[s] = bytes.toByteArray();
+        }
+
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        boolean moved = false;
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(entries.size());
+                out.writeInt(sectionCount);
+                for (int s = 0; s < sectionCount; s++) {
+                    out.writeInt(sections[s].length);
+                    out.writeInt(Math.min(entriesPerSection, entries.size() - s * entriesPerSection));
+                    out.writeInt(crc(sections[s]));
+                }
+                for (byte[] section : sections)
+                    out.write(section);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved)
+                Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Decodes every section of {@code file} in parallel and, once all of them have
+     * decoded cleanly, hands each entry to {@code sink}, which is called from several
+     * threads at once. A corrupt file reaches the sink with nothing. Returns the number
+     * of entries.
+     */
+    static int load(Path file, Consumer<Entry> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES, size, file);
+            if (header.getInt() != MAGIC)
+                throw new IOException("Not an inventory snapshot: " + file);
+            int format = header.getInt();
+            if (format != FORMAT_VERSION)
+                throw new IOException("Unsupported inventory snapshot format " + format + ": " + file);
+            int count = header.getInt();
+            int sectionCount = header.getInt();
+            if (count < 0 || sectionCount < 0 || sectionCount > (size - HEADER_BYTES) / SECTION_TABLE_BYTES)
+                throw corrupt(file);
+
+            ByteBuffer table = readFully(channel, HEADER_BYTES, sectionCount * SECTION_TABLE_BYTES, size, file);
+            int[] lengths = new int[sectionCount];
+            int[] counts = new int[sectionCount];
+            int[] crcs = new int[sectionCount];
+            long[] offsets = new long[sectionCount];
+            long offset = HEADER_BYTES + (long) sectionCount * SECTION_TABLE_BYTES;
+            long total = 0;
+            for (int s = 0; s < sectionCount; s++) {
+                lengths[s] = table.getInt();
+                counts[s] = table.getInt();
+                crcs[s] = table.getInt();
+                if (lengths[s] < 0 || counts[s] < 0 || (long) counts[s] * MIN_ENTRY_BYTES > lengths[s])
+                    throw corrupt(file);
+                offsets[s] = offset;
+                offset += lengths[s];
+                total += counts[s];
+            }
+            if (offset != size || total != count)
+                throw corrupt(file);
+
+            List<List<Entry>> sections;
+            try {
+                sections = IntStream.range(0, sectionCount).parallel().mapToObj(s -> {
+                    try {
+                        return decode(readFully(channel, offsets[s], lengths[s], size, file).array(), counts[s], crcs[s], file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).toList();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            sections.parallelStream().forEach(section -> section.forEach(sink));
+            return count;
+        }
+    }
+
+    private static List<Entry> decode(byte[] bytes, int count, int crc, Path file) throws IOException {
+        if (crc(bytes) != crc)
+            throw corrupt(file);
+
+        List<Entry> entries = new ArrayList<>(count);
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        for (int i = 0; i < count; i++) {
+            Book book = new Book(in.readUTF(), in.readLong(), in.readInt());
+            entries.add(new Entry(book, in.readLong(), in.readLong()));
+        }
+        if (in.available() != 0)
+            throw corrupt(file);
+        return entries;
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // positional reads, so sections can be read from the same channel concurrently
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, long size, Path file) throws IOException {
+        if (position + length > size)
+            throw corrupt(file);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw corrupt(file);
+        }
+        return buffer.flip();
+    }
+
+    private static IOException corrupt(Path file) {
+        return new IOException("Corrupt inventory snapshot: " + file);
+    }
+}
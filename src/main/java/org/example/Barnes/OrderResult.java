@@ -0,0 +1,43 @@
+package org.example.Barnes;
+
+import java.util.Map;
+
+/**
+ * Outcome of one order in an {@link OrderStream}: either the purchase summary or
+ * the error that order failed with.
+ */
+public class OrderResult {
+    private final Map<String, Integer> order;
+    private final PurchaseSummary summary;
+    private final RuntimeException error;
+
+    private OrderResult(Map<String, Integer> order, PurchaseSummary summary, RuntimeException error) {
+        this.order = order;
+        this.summary = summary;
+        this.error = error;
+    }
+
+    static OrderResult success(Map<String, Integer> order, PurchaseSummary summary) {
+        return new OrderResult(order, summary, null);
+    }
+
+    static OrderResult failure(Map<String, Integer> order, RuntimeException error) {
+        return new OrderResult(order, null, error);
+    }
+
+    public Map<String, Integer> getOrder() {
+        return order;
+    }
+
+    public PurchaseSummary getSummary() {
+        return summary;
+    }
+
+    public RuntimeException getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.Barnes;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prices a continuous feed of orders through {@link BarnesAndNoble}, emitting one
+ * {@link OrderResult} per order.
+ *
+ * At most {@code concurrency} orders are requested from upstream and priced at once;
+ * a new one is only requested after a result has been handed downstream, and handing
+ * it over blocks while subscribers have {@code bufferSize} results outstanding. Memory
+ * therefore stays bounded however fast the producer is. An order that fails (for
+ * example on an unknown ISBN) is emitted as a failed result and the stream carries on.
+ *
+ * Nothing is requested from upstream until a downstream subscriber exists, and once
+ * every downstream subscriber has cancelled the upstream subscription is cancelled
+ * too, so no order is bought without anyone to receive its result.
+ *
+ * Orders are priced on {@code executor}; results are delivered to subscribers on
+ * separate virtual threads, so a bounded executor cannot starve delivery.
+ *
+ * With a concurrency above one, results may be emitted out of order. The book database
+ * and buy process must be safe to call from several threads at once.
+ */
+public class OrderStream implements Flow.Processor<Map<String, Integer>, OrderResult> {
+
+    private final BarnesAndNoble barnesAndNoble;
+    private final int concurrency;
+    private final Executor executor;
+    private final SubmissionPublisher<OrderResult> results;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile Flow.Subscription subscription;
+
+    public OrderStream(BarnesAndNoble barnesAndNoble, int concurrency) {
+        this(barnesAndNoble, concurrency, Flow.defaultBufferSize(), Thread::startVirtualThread);
+    }
+
+    public OrderStream(BarnesAndNoble barnesAndNoble, int concurrency, int bufferSize, Executor executor) {
+        if (concurrency <= 0)
+            throw new IllegalArgumentException("concurrency must be positive");
+
+        this.barnesAndNoble = barnesAndNoble;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        // delivery gets its own threads: pricing tasks block in submit while the buffer
+        // is full, and must not hold every thread the drain needs
+        this.results = new SubmissionPublisher<>(Thread::startVirtualThread, bufferSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super OrderResult> subscriber) {
+        results.subscribe(subscriber);
+        startIfReady();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        startIfReady();
+    }
+
+    // first demand goes upstream only once both sides are connected
+    private void startIfReady() {
+        if (subscription != null && results.hasSubscribers() && started.compareAndSet(false, true))
+            subscription.request(concurrency);
+    }
+
+    @Override
+    public void onNext(Map<String, Integer> order) {
+        inFlight.incrementAndGet();
+        executor.execute(() -> {
+            if (results.hasSubscribers())
+                results.submit(price(order));
+
+            if (results.hasSubscribers())
+                subscription.request(1);
+            else if (cancelled.compareAndSet(false, true))
+                subscription.cancel();
+
+            if (inFlight.decrementAndGet() == 0 && (upstreamDone || cancelled.get()))
+                finish();
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        onComplete();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        if (inFlight.get() == 0)
+            finish();
+    }
+
+    private OrderResult price(Map<String, Integer> order) {
+        try {
+            return OrderResult.success(order, barnesAndNoble.getPriceForCart(order));
+        } catch (RuntimeException e) {
+            return OrderResult.failure(order, e);
+        }
+    }
+
+    private void finish() {
+        if (!finished.compareAndSet(false, true))
+            return;
+
+        if (upstreamError != null)
+            results.closeExceptionally(upstreamError);
+        else
+            results.close();
+    }
+}
@@ -1,11 +1,13 @@
 package org.example.Barnes;
 
+import org.example.Money;
+
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 public class PurchaseSummary {
-    private int totalPrice;
+    private long totalPrice;
     private Map<Book, Integer> unavailable;
 
     public PurchaseSummary() {
@@ -17,11 +19,11 @@ public class PurchaseSummary {
         this.unavailable.put(book, unavailableQty);
     }
 
-    public void addToTotalPrice(int valueToAdd) {
-        totalPrice += valueToAdd;
+    public void addToTotalPrice(long valueToAdd) {
+        totalPrice = Money.plus(totalPrice, valueToAdd);
     }
 
-    public int getTotalPrice() {
+    public long getTotalPrice() {
         return totalPrice;
     }
 
@@ -0,0 +1,205 @@
+package org.example.Checkout;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.example.Amazon.Amazon;
+import org.example.Amazon.Cost.ItemType;
+import org.example.Amazon.Item;
+import org.example.Amazon.OverloadedException;
+import org.example.Barnes.BarnesAndNoble;
+import org.example.Barnes.PurchaseSummary;
+import org.example.Money;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Small standalone HTTP front end for {@link Amazon} and {@link BarnesAndNoble}.
+ * Every request runs on its own virtual thread, so blocking JDBC calls behind the
+ * cart do not tie up a platform thread pool.
+ *
+ * <ul>
+ *     <li>{@code POST /cart} with form body {@code type, name, quantity, price} adds an item.</li>
+ *     <li>{@code GET /quote} returns {@link Amazon#calculate()}; concurrent quotes share one calculation.</li>
+ *     <li>{@code POST /checkout} with form body {@code isbn=quantity&...} prices a book order.</li>
+ * </ul>
+ *
+ * Requests over {@code maxConcurrentRequests}, or turned away by the cart database's
+ * {@link org.example.Amazon.AdmissionControl}, are answered with 503 and bodies over
+ * {@code maxBodyBytes} with 413. Bodies are plain text {@code key=value} lines and
+ * amounts are decimal, e.g. {@code price=12.50}. Quantities must be positive and prices
+ * not negative; these, and totals too large to represent, are answered with 400.
+ */
+public class CheckoutServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxBodyBytes;
+    private final Amazon amazon;
+    private final BarnesAndNoble barnesAndNoble;
+    private final QuoteBatcher quotes;
+
+    public CheckoutServer(InetSocketAddress address, Amazon amazon, BarnesAndNoble barnesAndNoble,
+                          int maxConcurrentRequests, int maxBodyBytes) throws IOException {
+        if (maxConcurrentRequests <= 0 || maxBodyBytes <= 0)
+            throw new IllegalArgumentException("limits must be positive");
+
+        this.amazon = amazon;
+        this.barnesAndNoble = barnesAndNoble;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.maxBodyBytes = maxBodyBytes;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.quotes = new QuoteBatcher(amazon);
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/cart", limited("POST", this::addToCart));
+        server.createContext("/quote", limited("GET", exchange -> Money.format(quotes.quote())));
+        server.createContext("/checkout", limited("POST", this::checkout));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections and waits up to {@code grace} for requests in
+     * progress to finish.
+     */
+    public void stop(Duration grace) throws InterruptedException {
+        long deadline = System.nanoTime() + grace.toNanos();
+        // HttpServer only takes whole seconds; round up so a sub-second grace still drains
+        server.stop((int) Math.max(0, Math.ceil(grace.toMillis() / 1000.0)));
+        executor.shutdown();
+        if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+            executor.shutdownNow();
+    }
+
+    int queuedQuotes() {
+        return quotes.queued();
+    }
+
+    private String addToCart(HttpExchange exchange) throws IOException {
+        Map<String, String> form = readForm(exchange);
+        amazon.addToCart(new Item(
+                ItemType.valueOf(required(form, "type")),
+                required(form, "name"),
+                quantity(required(form, "quantity")),
+                price(required(form, "price"))));
+        return "added";
+    }
+
+    private String checkout(HttpExchange exchange) throws IOException {
+        Map<String, Integer> order = new LinkedHashMap<>();
+        readForm(exchange).forEach((isbn, quantity) -> order.put(isbn, quantity(quantity)));
+
+        PurchaseSummary summary = barnesAndNoble.getPriceForCart(order);
+        String unavailable = summary.getUnavailable().entrySet().stream()
+                .map(e -> e.getKey().getISBN() + ":" + e.getValue())
+                .collect(Collectors.joining(","));
+        return "total=" + Money.format(summary.getTotalPrice()) + "\nunavailable=" + unavailable;
+    }
+
+    private interface Endpoint {
+        String handle(HttpExchange exchange) throws IOException;
+    }
+
+    private HttpHandler limited(String method, Endpoint endpoint) {
+        return exchange -> {
+            try (exchange) {
+                if (!method.equals(exchange.getRequestMethod())) {
+                    respond(exchange, 405, "method not allowed");
+                    return;
+                }
+                if (!permits.tryAcquire()) {
+                    respond(exchange, 503, "overloaded");
+                    return;
+                }
+                try {
+                    respond(exchange, 200, endpoint.handle(exchange));
+                } catch (OverloadedException e) {
+                    respond(exchange, 503, "overloaded");
+                } catch (BodyTooLargeException e) {
+                    respond(exchange, 413, "body too large");
+                } catch (IllegalArgumentException e) {
+                    respond(exchange, 400, String.valueOf(e.getMessage()));
+                } catch (ArithmeticException e) {
+                    respond(exchange, 400, "amount too large");
+                } catch (RuntimeException e) {
+                    respond(exchange, 500, "internal error");
+                } finally {
+                    permits.release();
+                }
+            }
+        };
+    }
+
+    private Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(maxBodyBytes + 1);
+        }
+        if (body.length > maxBodyBytes)
+            throw new BodyTooLargeException();
+
+        Map<String, String> form = new LinkedHashMap<>();
+        for (String pair : new String(body, StandardCharsets.UTF_8).split("[&\n]")) {
+            if (pair.isBlank())
+                continue;
+            int eq = pair.indexOf('=');
+            if (eq < 0)
+                throw new IllegalArgumentException("Malformed field: " + pair);
+            form.put(URLDecoder.decode(pair.substring(0, eq).trim(), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1).trim(), StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static String required(Map<String, String> form, String field) {
+        String value = form.get(field);
+        if (value == null)
+            throw new IllegalArgumentException("Missing field: " + field);
+        return value;
+    }
+
+    private static int quantity(String value) {
+        int quantity = Integer.parseInt(value.trim());
+        if (quantity <= 0)
+            throw new IllegalArgumentException("Quantity must be positive: " + value);
+        return quantity;
+    }
+
+    private static long price(String value) {
+        long cents = Money.parse(value);
+        if (cents < 0)
+            throw new IllegalArgumentException("Price must not be negative: " + value);
+        return cents;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static class BodyTooLargeException extends RuntimeException {
+    }
+}
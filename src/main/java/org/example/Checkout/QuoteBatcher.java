@@ -0,0 +1,153 @@
+package org.example.Checkout;
+
+import org.example.Amazon.Amazon;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces concurrent quote requests so that each {@link Amazon#calculate()} (one
+ * scan of the cart) answers every caller that arrived while the previous scan was
+ * running. A caller never receives a total computed before it arrived.
+ *
+ * The calculation always runs on one of the callers waiting for it, never on a
+ * separate executor, so a batch cannot be stranded by an executor that has shut down.
+ */
+class QuoteBatcher {
+
+    private static final class Batch {
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        int waiters;
+    }
+
+    private final Amazon amazon;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition handedOff = lock.newCondition();
+    private boolean running;
+    private Batch next;
+    private Batch promoted;
+    private long calculations;
+
+    QuoteBatcher(Amazon amazon) {
+        this.amazon = amazon;
+    }
+
+    long quote() {
+        Batch batch;
+        boolean lead;
+        lock.lock();
+        try {
+            lead = !running;
+            if (lead) {
+                running = true;
+                batch = new Batch();
+            } else {
+                if (next == null)
+                    next = new Batch();
+                batch = next;
+                batch.waiters++;
+                lead = awaitTurn(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (lead)
+            calculate(batch);
+
+        try {
+            return batch.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime)
+                throw runtime;
+            if (cause instanceof Error error)
+                throw error;
+            throw e;
+        }
+    }
+
+    // Lock held. Waits until the batch is done or handed to this caller to run.
+    private boolean awaitTurn(Batch batch) {
+        while (!batch.result.isDone()) {
+            if (promoted == batch) {
+                promoted = null;
+                return true;
+            }
+            try {
+                handedOff.await();
+            } catch (InterruptedException e) {
+                leave(batch);
+                Thread.currentThread().interrupt();
+                throw new CancellationException("interrupted while waiting for a quote");
+            }
+        }
+        return false;
+    }
+
+    // Lock held. A waiter gives up; make sure nothing is left waiting on it.
+    private void leave(Batch batch) {
+        batch.waiters--;
+        if (batch.waiters > 0)
+            return;
+
+        if (next == batch) {
+            next = null;
+        } else if (promoted == batch) {
+            promoted = null;
+            batch.result.cancel(false);
+            handOff();
+        }
+    }
+
+    private void calculate(Batch batch) {
+        try {
+            batch.result.complete(amazon.calculate());
+        } catch (Throwable e) {
+            batch.result.completeExceptionally(e);
+        } finally {
+            lock.lock();
+            try {
+                calculations++;
+                handOff();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Lock held. The running batch is finished: pass the turn to the next one, if anyone waits for it.
+    private void handOff() {
+        Batch following = next;
+        next = null;
+        if (following != null && following.waiters > 0) {
+            promoted = following;
+        } else {
+            promoted = null;
+            running = false;
+        }
+        handedOff.signalAll();
+    }
+
+    int queued() {
+        lock.lock();
+        try {
+            return next == null ? 0 : next.waiters;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long calculations() {
+        lock.lock();
+        try {
+            return calculations;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
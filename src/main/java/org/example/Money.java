@@ -0,0 +1,39 @@
+package org.example;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is carried as a primitive {@code long} number of cents throughout the pricing
+ * and purchase paths, so totals are exact and adding them never allocates. These
+ * helpers do the arithmetic with overflow checks: an amount that does not fit in a
+ * {@code long} throws {@link ArithmeticException} instead of wrapping around.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long plus(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    public static long times(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * Parses a decimal amount such as {@code "12.5"} into cents. Amounts with more than
+     * two decimals are rejected rather than rounded.
+     */
+    public static long parse(String amount) {
+        try {
+            return new BigDecimal(amount.trim()).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not a whole number of cents: " + amount);
+        }
+    }
+
+    public static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.Amazon;
+
+import org.example.Amazon.Cost.ItemType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Overloads one database with far more concurrent callers than it can serve, first
+ * unguarded and then behind an adaptive {@link AdmissionControl}, and prints the latency
+ * percentiles of successful calls plus the number of calls rejected.
+ *
+ * Not run by the test suite. Usage:
+ * {@code java ... org.example.Amazon.AdmissionControlLoadBenchmark [callers] [seconds]} (defaults: 2,000 and 10).
+ */
+public class AdmissionControlLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int callers = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Database database = new Database("jdbc:hsqldb:mem:admissionbench;shutdown=true", false);
+        ShoppingCartAdaptor cart = new ShoppingCartAdaptor(database);
+        for (int i = 0; i < 2_000; i++) cart.add(new Item(ItemType.OTHER, "item" + i, 1, 100));
+
+        run("unguarded", database, cart, callers, seconds);
+
+        AdmissionControl admission = new AdmissionControl(
+                AdmissionControl.vegas(4, 1, 64), 32, Duration.ofMillis(50));
+        database.setAdmissionControl(admission);
+        run("vegas    ", database, cart, callers, seconds);
+        System.out.printf("final limit %d, admitted %,d, rejected %,d%n",
+                admission.currentLimit(), admission.admittedCount(), admission.rejectedCount());
+
+        database.close();
+    }
+
+    private static void run(String label, Database database, ShoppingCartAdaptor cart, int callers, int seconds)
+            throws InterruptedException {
+        List<Long> latencies = new ArrayList<>();
+        AtomicLong rejected = new AtomicLong();
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < callers; c++) {
+                executor.submit(() -> {
+                    List<Long> mine = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        try {
+                            cart.getItems();
+                            mine.add(System.nanoTime() - start);
+                        } catch (OverloadedException e) {
+                            rejected.incrementAndGet();
+                            Thread.sleep(5);
+                        }
+                    }
+                    synchronized (latencies) {
+                        latencies.addAll(mine);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        latencies.sort(null);
+        System.out.printf("%s: %,d ok, %,d rejected, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", label,
+                latencies.size(), rejected.get(), percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 1.0));
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) return 0;
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
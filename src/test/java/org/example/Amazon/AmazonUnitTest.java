@@ -6,8 +6,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,14 +29,14 @@ public class AmazonUnitTest {
     @Test
     @DisplayName("specification-based: calculate total with one rule applied")
     void testSingleRuleAppliedCorrectly() {
-        Item item = new Item(ItemType.OTHER, "Book", 2, 10.0);
+        Item item = new Item(ItemType.OTHER, "Book", 2, 1000);
         when(mockCart.getItems()).thenReturn(List.of(item));
-        when(mockRule.priceToAggregate(List.of(item))).thenReturn(20.0);
+        when(mockRule.priceToAggregate(List.of(item))).thenReturn(2000L);
 
         Amazon amazon = new Amazon(mockCart, List.of(mockRule));
-        double total = amazon.calculate();
+        long total = amazon.calculate();
 
-        assertEquals(20.0, total);
+        assertEquals(2000, total);
         verify(mockRule, times(1)).priceToAggregate(List.of(item));
     }
 
@@ -41,7 +44,7 @@ public class AmazonUnitTest {
     @DisplayName("specification-based: add item delegates to cart.add")
     void testAddToCartDelegatesProperly() {
         Amazon amazon = new Amazon(mockCart, List.of());
-        Item item = new Item(ItemType.ELECTRONIC, "Headphones", 1, 50.0);
+        Item item = new Item(ItemType.ELECTRONIC, "Headphones", 1, 5000);
 
         amazon.addToCart(item);
         verify(mockCart, times(1)).add(item);
@@ -67,24 +70,24 @@ public class AmazonUnitTest {
     @Test
     @DisplayName("structural-based: calculate aggregates multiple rules")
     void testMultipleRulesAggregate() {
-        Item item = new Item(ItemType.OTHER, "Notebook", 1, 10.0);
+        Item item = new Item(ItemType.OTHER, "Notebook", 1, 1000);
         when(mockCart.getItems()).thenReturn(List.of(item));
-        when(mockRule.priceToAggregate(List.of(item))).thenReturn(10.0);
+        when(mockRule.priceToAggregate(List.of(item))).thenReturn(1000L);
 
         PriceRule mockRule2 = mock(PriceRule.class);
-        when(mockRule2.priceToAggregate(List.of(item))).thenReturn(5.0);
+        when(mockRule2.priceToAggregate(List.of(item))).thenReturn(500L);
 
         Amazon amazon = new Amazon(mockCart, List.of(mockRule, mockRule2));
-        double total = amazon.calculate();
+        long total = amazon.calculate();
 
-        assertEquals(15.0, total);
+        assertEquals(1500, total);
     }
 
     @Test
     @DisplayName("structural-based: DeliveryPrice - zero items returns 0")
     void testDeliveryPrice_zeroItems() {
         DeliveryPrice rule = new DeliveryPrice();
-        assertEquals(0.0, rule.priceToAggregate(List.of()));
+        assertEquals(0, rule.priceToAggregate(List.of()));
     }
 
     @Test
@@ -92,12 +95,12 @@ public class AmazonUnitTest {
     void testDeliveryPrice_oneToThree() {
         DeliveryPrice rule = new DeliveryPrice();
         // 1 item
-        assertEquals(5.0, rule.priceToAggregate(List.of(new Item(ItemType.OTHER, "A", 1, 1.0))));
+        assertEquals(500, rule.priceToAggregate(List.of(new Item(ItemType.OTHER, "A", 1, 100))));
         // 3 items
-        assertEquals(5.0, rule.priceToAggregate(List.of(
-                new Item(ItemType.OTHER, "A", 1, 1.0),
-                new Item(ItemType.OTHER, "B", 1, 1.0),
-                new Item(ItemType.OTHER, "C", 1, 1.0)
+        assertEquals(500, rule.priceToAggregate(List.of(
+                new Item(ItemType.OTHER, "A", 1, 100),
+                new Item(ItemType.OTHER, "B", 1, 100),
+                new Item(ItemType.OTHER, "C", 1, 100)
         )));
     }
 
@@ -106,17 +109,17 @@ public class AmazonUnitTest {
     void testDeliveryPrice_fourToTen() {
         DeliveryPrice rule = new DeliveryPrice();
         List<Item> fourItems = List.of(
-                new Item(ItemType.OTHER, "A", 1, 1.0),
-                new Item(ItemType.OTHER, "B", 1, 1.0),
-                new Item(ItemType.OTHER, "C", 1, 1.0),
-                new Item(ItemType.OTHER, "D", 1, 1.0)
+                new Item(ItemType.OTHER, "A", 1, 100),
+                new Item(ItemType.OTHER, "B", 1, 100),
+                new Item(ItemType.OTHER, "C", 1, 100),
+                new Item(ItemType.OTHER, "D", 1, 100)
         );
-        assertEquals(12.5, rule.priceToAggregate(fourItems));
+        assertEquals(1250, rule.priceToAggregate(fourItems));
 
         // 10 items
         List<Item> tenItems = new ArrayList<>();
-        for (int i = 0; i < 10; i++) tenItems.add(new Item(ItemType.OTHER, "P" + i, 1, 1.0));
-        assertEquals(12.5, rule.priceToAggregate(tenItems));
+        for (int i = 0; i < 10; i++) tenItems.add(new Item(ItemType.OTHER, "P" + i, 1, 100));
+        assertEquals(1250, rule.priceToAggregate(tenItems));
     }
 
     @Test
@@ -124,8 +127,8 @@ public class AmazonUnitTest {
     void testDeliveryPrice_moreThanTen() {
         DeliveryPrice rule = new DeliveryPrice();
         List<Item> elevenItems = new ArrayList<>();
-        for (int i = 0; i < 11; i++) elevenItems.add(new Item(ItemType.OTHER, "P" + i, 1, 1.0));
-        assertEquals(20.0, rule.priceToAggregate(elevenItems));
+        for (int i = 0; i < 11; i++) elevenItems.add(new Item(ItemType.OTHER, "P" + i, 1, 100));
+        assertEquals(2000, rule.priceToAggregate(elevenItems));
     }
 
     @Test
@@ -133,11 +136,11 @@ public class AmazonUnitTest {
     void testExtraCostForElectronics() {
         ExtraCostForElectronics rule = new ExtraCostForElectronics();
 
-        List<Item> noElectronics = List.of(new Item(ItemType.OTHER, "Pen", 1, 2.0));
-        assertEquals(0.0, rule.priceToAggregate(noElectronics));
+        List<Item> noElectronics = List.of(new Item(ItemType.OTHER, "Pen", 1, 200));
+        assertEquals(0, rule.priceToAggregate(noElectronics));
 
-        List<Item> hasElectronics = List.of(new Item(ItemType.ELECTRONIC, "Tablet", 1, 200.0));
-        assertEquals(7.5, rule.priceToAggregate(hasElectronics));
+        List<Item> hasElectronics = List.of(new Item(ItemType.ELECTRONIC, "Tablet", 1, 20000));
+        assertEquals(750, rule.priceToAggregate(hasElectronics));
     }
 
     @Test
@@ -145,12 +148,12 @@ public class AmazonUnitTest {
     void testRegularCostCalculation() {
         RegularCost rule = new RegularCost();
         List<Item> items = List.of(
-                new Item(ItemType.OTHER, "Pencil", 2, 1.5),
-                new Item(ItemType.OTHER, "Notebook", 1, 5.0)
+                new Item(ItemType.OTHER, "Pencil", 2, 150),
+                new Item(ItemType.OTHER, "Notebook", 1, 500)
         );
 
-        double total = rule.priceToAggregate(items);
-        assertEquals(8.0, total);
+        long total = rule.priceToAggregate(items);
+        assertEquals(800, total);
     }
 
     @Test
@@ -166,4 +169,158 @@ public class AmazonUnitTest {
         assertTrue(re.getCause() instanceof SQLException);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("specification-based: RegularCost keeps single cents next to a huge price")
+    void testRegularCostExactSummation() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item(ItemType.OTHER, "Warehouse", 1, 100_000_000_000_000_000L));
+        for (int i = 0; i < 10; i++) items.add(new Item(ItemType.OTHER, "Pen" + i, 1, 1));
+
+        // summed as doubles, each single cent would be lost to rounding
+        assertEquals(100_000_000_000_000_010L, new RegularCost().priceToAggregate(items));
+        assertEquals(100_000_000_000_000_010L, new RegularCost(2).priceToAggregate(items));
+    }
+
+    @Test
+    @DisplayName("specification-based: RegularCost and Amazon.calculate fail loudly on overflow")
+    void testRegularCostOverflow() {
+        List<Item> items = List.of(
+                new Item(ItemType.OTHER, "Bulk", 1_000_000, Long.MAX_VALUE / 100),
+                new Item(ItemType.OTHER, "Pen", 1, 100));
+
+        assertThrows(ArithmeticException.class, () -> new RegularCost().priceToAggregate(items));
+        assertThrows(ArithmeticException.class, () -> new RegularCost(1).priceToAggregate(items));
+
+        when(mockCart.getItems()).thenReturn(List.of());
+        when(mockRule.priceToAggregate(List.of())).thenReturn(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> new Amazon(mockCart, List.of(mockRule, mockRule)).calculate());
+    }
+
+    @Test
+    @DisplayName("structural-based: RegularCost parallel path matches the sequential total every run")
+    void testRegularCostParallelIsDeterministic() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) items.add(new Item(ItemType.OTHER, "P" + i, 1 + i % 7, 10 * (i % 13)));
+
+        long sequential = new RegularCost(Integer.MAX_VALUE).priceToAggregate(items);
+        RegularCost parallel = new RegularCost(64);
+        for (int run = 0; run < 20; run++) {
+            assertEquals(sequential, parallel.priceToAggregate(items));
+        }
+    }
+
+    @Test
+    @DisplayName("structural-based: ExtraCostForElectronics parallel path finds the only electronic item")
+    void testExtraCostForElectronicsParallel() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) items.add(new Item(ItemType.OTHER, "P" + i, 1, 100));
+        ExtraCostForElectronics rule = new ExtraCostForElectronics(16);
+
+        assertEquals(0, rule.priceToAggregate(items));
+        items.add(new Item(ItemType.ELECTRONIC, "Tablet", 1, 20000));
+        assertEquals(750, rule.priceToAggregate(items));
+    }
+
+    @Test
+    @DisplayName("structural-based: rules reject a non-positive parallel threshold")
+    void testRulesRejectZeroThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new RegularCost(0));
+        assertThrows(IllegalArgumentException.class, () -> new ExtraCostForElectronics(-1));
+    }
+
+    @Test
+    @DisplayName("specification-based: admission control fails fast once the limit and queue are full")
+    void testAdmissionControlRejectsWhenFull() {
+        AdmissionControl admission = new AdmissionControl(AdmissionControl.fixed(1), 0, Duration.ofSeconds(1));
+
+        long first = admission.acquire();
+        assertThrows(OverloadedException.class, admission::acquire);
+        assertEquals(1, admission.rejectedCount());
+
+        admission.release(first, false);
+        admission.release(admission.acquire(), false);
+        assertEquals(2, admission.admittedCount());
+        assertEquals(0, admission.inFlight());
+    }
+
+    @Test
+    @DisplayName("specification-based: queued caller is admitted when a slot frees up")
+    void testAdmissionControlQueuesUpToLimit() throws Exception {
+        AdmissionControl admission = new AdmissionControl(AdmissionControl.fixed(1), 1, Duration.ofSeconds(5));
+
+        long first = admission.acquire();
+        CompletableFuture<Long> waiter = CompletableFuture.supplyAsync(admission::acquire);
+        while (admission.queueDepth() == 0) Thread.sleep(5);
+
+        assertThrows(OverloadedException.class, admission::acquire); // queue of one is taken
+        admission.release(first, false);
+        admission.release(waiter.get(5, TimeUnit.SECONDS), false);
+        assertEquals(0, admission.queueDepth());
+    }
+
+    @Test
+    @DisplayName("structural-based: queued caller gives up after the maximum wait")
+    void testAdmissionControlWaitTimesOut() {
+        AdmissionControl admission = new AdmissionControl(AdmissionControl.fixed(1), 10, Duration.ofMillis(20));
+
+        admission.acquire();
+        assertThrows(OverloadedException.class, admission::acquire);
+        assertEquals(1, admission.rejectedCount());
+        assertEquals(0, admission.queueDepth());
+    }
+
+    @Test
+    @DisplayName("structural-based: Database.withSql goes through admission control")
+    void testDatabaseWithSqlUsesAdmissionControl() {
+        Database db = new Database();
+        AdmissionControl admission = new AdmissionControl(AdmissionControl.fixed(1), 0, Duration.ZERO);
+        db.setAdmissionControl(admission);
+
+        // the outer call holds the only slot, so the nested one is turned away
+        assertThrows(OverloadedException.class, () -> db.withSql(() -> db.withSql(() -> 1)));
+        assertEquals(0, admission.inFlight());
+        assertEquals(2, (int) db.withSql(() -> 2));
+        assertEquals(2, admission.admittedCount());
+    }
+
+    @Test
+    @DisplayName("structural-based: AIMD limit grows while saturated and fast, shrinks when slow")
+    void testAimdLimit() {
+        AdmissionControl.Limit limit = AdmissionControl.aimd(10, 2, 20, Duration.ofMillis(10));
+
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(1), 10, false);
+        assertEquals(11, limit.current());
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(1), 3, false);
+        assertEquals(11, limit.current()); // not saturated, no growth
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(50), 11, false);
+        assertEquals(9, limit.current());
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(1), 1, true);
+        assertEquals(8, limit.current());
+    }
+
+    @Test
+    @DisplayName("structural-based: Vegas limit shrinks as latency rises above the minimum")
+    void testVegasLimit() {
+        AdmissionControl.Limit limit = AdmissionControl.vegas(20, 2, 40);
+
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(1), 20, false);
+        assertEquals(21, limit.current());
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(4), 21, false); // ~15 queueing
+        assertEquals(20, limit.current());
+        assertThrows(IllegalArgumentException.class, () -> AdmissionControl.vegas(1, 2, 3));
+    }
+
+    @Test
+    @DisplayName("structural-based: Vegas limit recovers once latency has risen for good")
+    void testVegasLimitRecoversFromHigherBaseline() {
+        AdmissionControl.Limit limit = AdmissionControl.vegas(20, 2, 40);
+        for (int i = 0; i < 10; i++) limit.onSample(TimeUnit.MILLISECONDS.toNanos(1), limit.current(), false);
+
+        for (int i = 0; i < 100; i++) limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), limit.current(), false);
+        assertTrue(limit.current() <= 6); // every call looks queued against the old 1 ms baseline
+
+        for (int i = 0; i < 1000; i++) limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), limit.current(), false);
+        assertEquals(40, limit.current()); // 10 ms is the new baseline, nothing is queueing
+    }
+
+}
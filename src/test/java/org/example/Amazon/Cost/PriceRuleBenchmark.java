@@ -0,0 +1,46 @@
+package org.example.Amazon.Cost;
+
+import org.example.Amazon.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times RegularCost sequentially and in parallel over growing cart sizes and reports
+ * the first size at which the parallel path is faster, i.e. a sensible parallel threshold.
+ *
+ * Not run by the test suite. Usage: {@code java ... org.example.Amazon.Cost.PriceRuleBenchmark}
+ */
+public class PriceRuleBenchmark {
+
+    public static void main(String[] args) {
+        RegularCost sequential = new RegularCost(Integer.MAX_VALUE);
+        RegularCost parallel = new RegularCost(1024);
+        int crossover = -1;
+
+        for (int size = 2048; size <= 4 << 20; size *= 2) {
+            List<Item> cart = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) cart.add(new Item(ItemType.OTHER, "P" + i, 1 + i % 5, i % 997));
+
+            double seqNanos = time(sequential, cart);
+            double parNanos = time(parallel, cart);
+            System.out.printf("%,10d items: sequential %,12.0f ns, parallel %,12.0f ns%n", size, seqNanos, parNanos);
+            if (crossover < 0 && parNanos < seqNanos) crossover = size;
+        }
+
+        System.out.println(crossover < 0
+                ? "parallel never faster on " + Runtime.getRuntime().availableProcessors() + " core(s)"
+                : "crossover at about " + crossover + " items");
+    }
+
+    private static double time(RegularCost rule, List<Item> cart) {
+        long sink = 0;
+        for (int i = 0; i < 20; i++) sink += rule.priceToAggregate(cart);
+
+        int runs = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) sink += rule.priceToAggregate(cart);
+        if (sink == 42) System.out.println();
+        return (System.nanoTime() - start) / (double) runs;
+    }
+}
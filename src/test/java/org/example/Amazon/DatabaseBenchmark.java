@@ -0,0 +1,57 @@
+package org.example.Amazon;
+
+import org.example.Amazon.Cost.ItemType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Compares the in-memory and file-backed cart stores: insert throughput through
+ * {@link ShoppingCartAdaptor} and retained heap once all rows are written.
+ *
+ * Not run by the test suite. Usage:
+ * {@code java -Xmx2g ... org.example.Amazon.DatabaseBenchmark [rows] [cacheRows] [cacheSizeKb]}
+ * (defaults: 10,000,000 rows, 50,000 cached rows, 16 MB cache).
+ */
+public class DatabaseBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int cacheRows = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int cacheSizeKb = args.length > 2 ? Integer.parseInt(args[2]) : 16 * 1024;
+
+        Path dir = Files.createTempDirectory("cart-bench");
+        run("file", Database.fileBacked(dir.resolve("cart").toString(), cacheRows, cacheSizeKb), rows);
+        System.out.printf("file: %d MB on disk%n", directorySize(dir) / (1024 * 1024));
+
+        run("mem ", new Database("jdbc:hsqldb:mem:cartbench;shutdown=true", false), rows);
+    }
+
+    private static void run(String label, Database database, int rows) {
+        long heapBefore = usedHeap();
+        ShoppingCartAdaptor cart = new ShoppingCartAdaptor(database);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            cart.add(new Item(i % 10 == 0 ? ItemType.ELECTRONIC : ItemType.OTHER, "item" + i, 1 + i % 5, 999));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s: %,d rows in %.1f s (%,.0f rows/s), retained heap %d MB%n",
+                label, rows, seconds, rows / seconds, (usedHeap() - heapBefore) / (1024 * 1024));
+        database.close();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long directorySize(Path dir) throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+}
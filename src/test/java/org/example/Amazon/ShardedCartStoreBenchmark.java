@@ -0,0 +1,49 @@
+package org.example.Amazon;
+
+import org.example.Amazon.Cost.ItemType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures cart write throughput with one writer thread per core while the number of
+ * shards grows from one up to the core count, which is always the last step.
+ *
+ * Not run by the test suite. Usage:
+ * {@code java ... org.example.Amazon.ShardedCartStoreBenchmark [writesPerThread]} (default 20,000).
+ */
+public class ShardedCartStoreBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int writesPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // powers of two, always ending at the actual core count (e.g. 1, 2, 4, 6 on six cores)
+        for (int shards = 1; shards <= threads; shards = shards == threads ? threads + 1 : Math.min(shards * 2, threads)) {
+            run(shards, threads, writesPerThread / 10); // warm-up
+            double rate = run(shards, threads, writesPerThread);
+            System.out.printf("%2d shards, %2d threads: %,.0f writes/s%n", shards, threads, rate);
+        }
+    }
+
+    private static double run(int shardCount, int threads, int writesPerThread) throws InterruptedException {
+        ShardedCartStore store = new ShardedCartStore(shardCount);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < writesPerThread; i++) {
+                    store.cart("cart" + writer + "_" + (i % 64)).add(new Item(ItemType.OTHER, "item" + i, 1, 999));
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) writer.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        store.close();
+        return threads * (double) writesPerThread / seconds;
+    }
+}
@@ -185,5 +185,54 @@ class BarnesAndNobleTest {
         assertNotEquals(book, o); // hits o == null true branch
     }
 
+    @Test
+    @DisplayName("specification-based: wholesale total beyond int range is exact")
+    void testLargeWholesaleTotal() {
+        Book book = new Book("123", 5_000_000, 1_000_000); // $50,000 a copy
+        BarnesAndNoble bn = createSystem(book);
+
+        PurchaseSummary summary = bn.getPriceForCart(Map.of("123", 1_000_000));
+
+        assertEquals(5_000_000_000_000L, summary.getTotalPrice());
+    }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("structural-based: total that overflows a long throws instead of wrapping")
+    void testTotalOverflowThrows() {
+        Book book = new Book("123", Long.MAX_VALUE / 2, 10);
+        BarnesAndNoble bn = createSystem(book);
+
+        assertThrows(ArithmeticException.class, () -> bn.getPriceForCart(Map.of("123", 3)));
+    }
+
+    @Test
+    @DisplayName("specification-based: an order with an unknown ISBN buys nothing")
+    void testUnknownIsbnBuysNothing() {
+        Book known = new Book("A", 10, 5);
+        FakeBuyProcess process = new FakeBuyProcess();
+        BarnesAndNoble bn = new BarnesAndNoble(ISBN -> ISBN.equals("A") ? known : null, process);
+
+        Map<String, Integer> order = new LinkedHashMap<>();
+        order.put("A", 2);       // known book first, so it would be bought before the failure
+        order.put("missing", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> bn.getPriceForCart(order));
+        assertEquals(0, process.totalBought);
+    }
+
+    @Test
+    @DisplayName("structural-based: an overflowing order buys nothing")
+    void testOverflowBuysNothing() {
+        Book cheap = new Book("A", 10, 5);
+        Book huge = new Book("B", Long.MAX_VALUE / 2, 10);
+        FakeBuyProcess process = new FakeBuyProcess();
+        BarnesAndNoble bn = new BarnesAndNoble(ISBN -> ISBN.equals("A") ? cheap : huge, process);
+
+        Map<String, Integer> order = new LinkedHashMap<>();
+        order.put("A", 1);
+        order.put("B", 3);
+
+        assertThrows(ArithmeticException.class, () -> bn.getPriceForCart(order));
+        assertEquals(0, process.totalBought);
+    }
+}
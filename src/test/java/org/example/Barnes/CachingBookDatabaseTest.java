@@ -0,0 +1,246 @@
+package org.example.Barnes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingBookDatabaseTest {
+
+    // Map-backed catalog that counts how often it is hit
+    static class CountingCatalog implements BookDatabase {
+        final Map<String, Book> books = new HashMap<>();
+        final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public Book findByISBN(String ISBN) {
+            lookups.incrementAndGet();
+            return books.get(ISBN);
+        }
+    }
+
+    @Test
+    @DisplayName("specification-based: repeated lookups are served without the catalog")
+    void testCachesLookups() {
+        CountingCatalog catalog = new CountingCatalog();
+        catalog.books.put("123", new Book("123", 10, 5));
+        CachingBookDatabase cache = new CachingBookDatabase(catalog, () -> 1, 1000);
+
+        assertEquals(10, cache.findByISBN("123").getPrice());
+        assertEquals(10, cache.findByISBN("123").getPrice());
+        assertNull(cache.findByISBN("missing"));
+
+        assertEquals(2, catalog.lookups.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("specification-based: going over capacity evicts the least requested books")
+    void testEvictsLeastRequestedOverCapacity() {
+        CountingCatalog catalog = new CountingCatalog();
+        for (int i = 0; i < 20; i++) catalog.books.put("isbn" + i, new Book("isbn" + i, i, 1));
+        CachingBookDatabase cache = new CachingBookDatabase(catalog, () -> 1, 10);
+
+        for (int hit = 0; hit < 5; hit++) cache.findByISBN("isbn0");
+        for (int i = 1; i < 20; i++) cache.findByISBN("isbn" + i);
+
+        assertTrue(cache.size() <= 10);
+        int lookups = catalog.lookups.get();
+        cache.findByISBN("isbn0");
+        assertEquals(lookups, catalog.lookups.get()); // the hot book survived every eviction
+    }
+
+    @Test
+    @DisplayName("structural-based: warm up keeps only as many books as the capacity allows")
+    void testWarmUpRespectsCapacity(@TempDir Path dir) throws IOException {
+        List<InventorySnapshot.Entry> books = new ArrayList<>();
+        for (int i = 0; i < 50; i++) books.add(new InventorySnapshot.Entry(new Book("isbn" + i, i, 1), i, 1));
+        Path file = dir.resolve("inventory.snap");
+        InventorySnapshot.write(file, books);
+
+        CachingBookDatabase cache = new CachingBookDatabase(new CountingCatalog(), () -> 1, 20);
+        assertEquals(50, cache.warmUp(file));
+        assertTrue(cache.size() <= 20);
+        assertNotNull(cache.findByISBN("isbn49"));
+    }
+
+    @Test
+    @DisplayName("structural-based: rejects a non-positive capacity")
+    void testRejectsZeroCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingBookDatabase(new CountingCatalog(), () -> 1, 0));
+    }
+
+    @Test
+    @DisplayName("specification-based: warm start answers from the snapshot before any catalog call")
+    void testSnapshotAndWarmUp(@TempDir Path dir) throws IOException {
+        CountingCatalog catalog = new CountingCatalog();
+        for (int i = 0; i < 10; i++) catalog.books.put("isbn" + i, new Book("isbn" + i, 100 + i, i));
+        CachingBookDatabase before = new CachingBookDatabase(catalog, () -> 7, 1000);
+        for (int i = 0; i < 10; i++)
+            for (int hit = 0; hit <= i; hit++) before.findByISBN("isbn" + i);
+
+        Path file = dir.resolve("inventory.snap");
+        before.snapshot(file, 3);
+
+        CountingCatalog coldCatalog = new CountingCatalog();
+        CachingBookDatabase after = new CachingBookDatabase(coldCatalog, () -> 7, 1000);
+        assertEquals(3, after.warmUp(file));
+
+        Book hottest = after.findByISBN("isbn9");
+        assertEquals(109, hottest.getPrice());
+        assertEquals(9, hottest.getQuantity());
+        assertNotNull(after.findByISBN("isbn7"));
+        assertEquals(0, coldCatalog.lookups.get());
+    }
+
+    @Test
+    @DisplayName("specification-based: stale snapshot entries are served and refreshed in the background")
+    void testStaleEntriesRefresh(@TempDir Path dir) throws IOException {
+        CountingCatalog catalog = new CountingCatalog();
+        catalog.books.put("123", new Book("123", 10, 5));
+        CachingBookDatabase before = new CachingBookDatabase(catalog, () -> 1, 1000);
+        before.findByISBN("123");
+        Path file = dir.resolve("inventory.snap");
+        before.snapshot(file, 10);
+
+        catalog.books.put("123", new Book("123", 12, 4)); // price changed in catalog version 2
+        AtomicLong version = new AtomicLong(2);
+        CachingBookDatabase after = new CachingBookDatabase(catalog, version::get, 1000, Runnable::run);
+        after.warmUp(file);
+
+        assertEquals(10, after.findByISBN("123").getPrice()); // stale copy answers right away
+        assertEquals(12, after.findByISBN("123").getPrice()); // refreshed copy from then on
+    }
+
+    @Test
+    @DisplayName("structural-based: warm up without a snapshot file loads nothing")
+    void testWarmUpWithoutSnapshot(@TempDir Path dir) throws IOException {
+        CachingBookDatabase cache = new CachingBookDatabase(new CountingCatalog(), () -> 1, 1000);
+        assertEquals(0, cache.warmUp(dir.resolve("absent.snap")));
+    }
+
+    @Test
+    @DisplayName("structural-based: a file that is not a snapshot is rejected")
+    void testWarmUpRejectsForeignFile(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("junk.snap"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        CachingBookDatabase cache = new CachingBookDatabase(new CountingCatalog(), () -> 1, 1000);
+        assertThrows(IOException.class, () -> cache.warmUp(file));
+    }
+
+    @Test
+    @DisplayName("structural-based: a snapshot split into many sections loads every book")
+    void testWarmUpFromManySections(@TempDir Path dir) throws IOException {
+        List<InventorySnapshot.Entry> books = new ArrayList<>();
+        for (int i = 0; i < 100; i++) books.add(new InventorySnapshot.Entry(new Book("isbn" + i, i, 1), i, 1));
+        Path file = dir.resolve("inventory.snap");
+        InventorySnapshot.write(file, books, 7);
+
+        CountingCatalog catalog = new CountingCatalog();
+        CachingBookDatabase cache = new CachingBookDatabase(catalog, () -> 1, 1000);
+        assertEquals(100, cache.warmUp(file));
+        assertEquals(100, cache.size());
+        assertEquals(42, cache.findByISBN("isbn42").getPrice());
+        assertEquals(0, catalog.lookups.get());
+    }
+
+    @Test
+    @DisplayName("structural-based: a header whose counts do not fit the file is rejected")
+    void testWarmUpRejectsCorruptCounts(@TempDir Path dir) throws IOException {
+        CachingBookDatabase cache = new CachingBookDatabase(new CountingCatalog(), () -> 1, 1000);
+        Path negative = Files.write(dir.resolve("negative.snap"), header(-1, 0, new int[0]));
+        Path huge = Files.write(dir.resolve("huge.snap"), header(Integer.MAX_VALUE, 1, new int[]{0, Integer.MAX_VALUE, 0}));
+        Path tooManySections = Files.write(dir.resolve("sections.snap"), header(0, Integer.MAX_VALUE, new int[0]));
+
+        assertThrows(IOException.class, () -> cache.warmUp(negative));
+        assertThrows(IOException.class, () -> cache.warmUp(huge));
+        assertThrows(IOException.class, () -> cache.warmUp(tooManySections));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("structural-based: a damaged section loads nothing rather than part of the file")
+    void testWarmUpIsAllOrNothing(@TempDir Path dir) throws IOException {
+        List<InventorySnapshot.Entry> books = new ArrayList<>();
+        for (int i = 0; i < 20; i++) books.add(new InventorySnapshot.Entry(new Book("isbn" + i, 100 + i, 1), i, 1));
+        Path file = dir.resolve("inventory.snap");
+        InventorySnapshot.write(file, books, 10);
+        byte[] bytes = Files.readAllBytes(file);
+
+        bytes[bytes.length - 9] ^= 1; // a version field in the last section
+        Files.write(file, bytes);
+        CachingBookDatabase cache = new CachingBookDatabase(new CountingCatalog(), () -> 1, 1000);
+
+        assertThrows(IOException.class, () -> cache.warmUp(file));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("structural-based: a snapshot that cannot be moved into place leaves no temp file")
+    void testFailedMoveLeavesNoTempFile(@TempDir Path dir) throws IOException {
+        Path file = Files.createDirectory(dir.resolve("inventory.snap"));
+        Files.createFile(file.resolve("occupied"));
+        CachingBookDatabase cache = new CachingBookDatabase(new CountingCatalog(), () -> 1, 1000);
+
+        assertThrows(IOException.class, () -> cache.snapshot(file, 10));
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    private static byte[] header(int count, int sections, int[] table) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(InventorySnapshot.MAGIC);
+            out.writeInt(InventorySnapshot.FORMAT_VERSION);
+            out.writeInt(count);
+            out.writeInt(sections);
+            for (int value : table) out.writeInt(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("specification-based: failed scheduled snapshots are reported and retried")
+    void testScheduledSnapshotFailures(@TempDir Path dir) throws InterruptedException {
+        CachingBookDatabase cache = new CachingBookDatabase(new CountingCatalog(), () -> 1, 1000);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            cache.scheduleSnapshots(scheduler, dir.resolve("missing").resolve("inventory.snap"), 10, Duration.ofMillis(5));
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (cache.snapshotFailures() < 2 && System.nanoTime() < deadline) Thread.sleep(5);
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertTrue(cache.snapshotFailures() >= 2);
+        assertInstanceOf(IOException.class, cache.lastSnapshotFailure());
+    }
+
+    @Test
+    @DisplayName("structural-based: BarnesAndNoble prices carts through the cache")
+    void testBarnesAndNobleOverCache() {
+        CountingCatalog catalog = new CountingCatalog();
+        catalog.books.put("123", new Book("123", 20, 5));
+        BarnesAndNoble bn = new BarnesAndNoble(new CachingBookDatabase(catalog, () -> 1, 1000), (b, amount) -> { });
+
+        assertEquals(60, bn.getPriceForCart(Map.of("123", 3)).getTotalPrice());
+        assertEquals(60, bn.getPriceForCart(Map.of("123", 3)).getTotalPrice());
+        assertEquals(1, catalog.lookups.get());
+    }
+}
@@ -0,0 +1,243 @@
+package org.example.Barnes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStreamTest {
+
+    // Collects every result and requests them one at a time
+    static class CollectingSubscriber implements Flow.Subscriber<OrderResult> {
+        final List<OrderResult> results = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Throwable error;
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(OrderResult item) {
+            results.add(item);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    private List<OrderResult> run(OrderStream stream, List<Map<String, Integer>> orders) throws InterruptedException {
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        stream.subscribe(subscriber);
+
+        try (SubmissionPublisher<Map<String, Integer>> source = new SubmissionPublisher<>()) {
+            source.subscribe(stream);
+            orders.forEach(source::submit);
+        }
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        return subscriber.results;
+    }
+
+    @Test
+    @DisplayName("specification-based: emits one purchase summary per order")
+    void testOneSummaryPerOrder() throws InterruptedException {
+        Book book = new Book("123", 10, 5);
+        BarnesAndNoble bn = new BarnesAndNoble(ISBN -> book, (b, amount) -> { });
+
+        List<OrderResult> results = run(new OrderStream(bn, 4), List.of(Map.of("123", 1), Map.of("123", 2), Map.of("123", 7)));
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(OrderResult::isSuccessful));
+        long total = results.stream().mapToLong(r -> r.getSummary().getTotalPrice()).sum();
+        assertEquals(10 + 20 + 50, total);
+    }
+
+    @Test
+    @DisplayName("specification-based: an unknown ISBN fails its own order without ending the stream")
+    void testUnknownIsbnDoesNotKillStream() throws InterruptedException {
+        Book book = new Book("123", 10, 5);
+        BarnesAndNoble bn = new BarnesAndNoble(ISBN -> ISBN.equals("123") ? book : null, (b, amount) -> { });
+
+        List<OrderResult> results = run(new OrderStream(bn, 1), List.of(Map.of("123", 1), Map.of("missing", 1), Map.of("123", 3)));
+
+        assertEquals(3, results.size());
+        assertEquals(2, results.stream().filter(OrderResult::isSuccessful).count());
+        OrderResult failed = results.stream().filter(r -> !r.isSuccessful()).findFirst().orElseThrow();
+        assertEquals(Map.of("missing", 1), failed.getOrder());
+        assertInstanceOf(IllegalArgumentException.class, failed.getError());
+    }
+
+    @Test
+    @DisplayName("structural-based: never prices more orders at once than the configured concurrency")
+    void testConcurrencyIsBounded() throws InterruptedException {
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Book book = new Book("123", 1, 1000);
+        BookDatabase slowCatalog = ISBN -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            current.decrementAndGet();
+            return book;
+        };
+        BarnesAndNoble bn = new BarnesAndNoble(slowCatalog, (b, amount) -> { });
+
+        List<Map<String, Integer>> orders = new ArrayList<>();
+        for (int i = 0; i < 200; i++) orders.add(Map.of("123", 1));
+
+        try (ExecutorService pool = Executors.newCachedThreadPool()) {
+            List<OrderResult> results = run(new OrderStream(bn, 3, 4, pool), orders);
+
+            assertEquals(200, results.size());
+            assertTrue(peak.get() <= 3);
+        }
+    }
+
+    @Test
+    @DisplayName("structural-based: a bounded pricing pool does not stall delivery of a full buffer")
+    void testBoundedExecutorDoesNotDeadlock() throws InterruptedException {
+        Book book = new Book("123", 1, 1000);
+        BarnesAndNoble bn = new BarnesAndNoble(ISBN -> book, (b, amount) -> { });
+        List<Map<String, Integer>> orders = new ArrayList<>();
+        for (int i = 0; i < 200; i++) orders.add(Map.of("123", 1));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ExecutorService requester = Executors.newSingleThreadExecutor();
+        try {
+            OrderStream stream = new OrderStream(bn, 2, 1, pool);
+            List<OrderResult> results = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(1);
+            stream.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    requester.execute(() -> subscription.request(1));
+                }
+
+                @Override
+                public void onNext(OrderResult item) {
+                    results.add(item);
+                    requester.execute(() -> subscription.request(1));
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+
+            try (SubmissionPublisher<Map<String, Integer>> source = new SubmissionPublisher<>()) {
+                source.subscribe(stream);
+                orders.forEach(source::submit);
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(200, results.size());
+        } finally {
+            pool.shutdownNow(); // a deadlocked pool would never terminate on close
+            requester.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("structural-based: rejects a non-positive concurrency")
+    void testRejectsZeroConcurrency() {
+        BarnesAndNoble bn = new BarnesAndNoble(ISBN -> null, (b, amount) -> { });
+        assertThrows(IllegalArgumentException.class, () -> new OrderStream(bn, 0));
+    }
+
+    @Test
+    @DisplayName("specification-based: no order is bought before a downstream subscriber exists")
+    void testWaitsForDownstreamSubscriber() throws InterruptedException {
+        AtomicInteger bought = new AtomicInteger();
+        Book book = new Book("123", 10, 5);
+        OrderStream stream = new OrderStream(new BarnesAndNoble(ISBN -> book, (b, amount) -> bought.incrementAndGet()), 2);
+
+        try (SubmissionPublisher<Map<String, Integer>> source = new SubmissionPublisher<>()) {
+            source.subscribe(stream);
+            for (int i = 0; i < 5; i++) source.submit(Map.of("123", 1));
+            Thread.sleep(100);
+            assertEquals(0, bought.get());
+
+            CollectingSubscriber subscriber = new CollectingSubscriber();
+            stream.subscribe(subscriber);
+            source.close();
+
+            assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+            assertEquals(5, subscriber.results.size());
+            assertEquals(5, bought.get());
+        }
+    }
+
+    @Test
+    @DisplayName("specification-based: downstream cancel stops pulling and buying orders")
+    void testDownstreamCancelStopsUpstream() throws InterruptedException {
+        AtomicInteger bought = new AtomicInteger();
+        Book book = new Book("123", 10, 5);
+        OrderStream stream = new OrderStream(new BarnesAndNoble(ISBN -> book, (b, amount) -> bought.incrementAndGet()), 1);
+
+        CountDownLatch first = new CountDownLatch(1);
+        stream.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(OrderResult item) {
+                subscription.cancel();
+                first.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        try (SubmissionPublisher<Map<String, Integer>> source = new SubmissionPublisher<>()) {
+            source.subscribe(stream);
+            for (int i = 0; i < 100; i++) source.submit(Map.of("123", 1));
+
+            assertTrue(first.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 200 && source.hasSubscribers(); i++) Thread.sleep(10);
+
+            assertFalse(source.hasSubscribers());
+            assertTrue(bought.get() < 100);
+        }
+    }
+}
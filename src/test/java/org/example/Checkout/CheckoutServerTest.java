@@ -0,0 +1,256 @@
+package org.example.Checkout;
+
+import org.example.Amazon.Amazon;
+import org.example.Amazon.Cost.DeliveryPrice;
+import org.example.Amazon.Cost.ItemType;
+import org.example.Amazon.Cost.RegularCost;
+import org.example.Amazon.Item;
+import org.example.Amazon.ShoppingCart;
+import org.example.Barnes.BarnesAndNoble;
+import org.example.Barnes.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutServerTest {
+
+    // Simple list-backed ShoppingCart that can be held inside getItems()
+    static class FakeCart implements ShoppingCart {
+        final List<Item> items = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean entered;
+
+        @Override
+        public void add(Item item) {
+            items.add(item);
+        }
+
+        @Override
+        public List<Item> getItems() {
+            entered = true;
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ArrayList<>(items);
+        }
+
+        @Override
+        public int numberOfItems() {
+            return items.size();
+        }
+    }
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final FakeCart cart = new FakeCart();
+    private CheckoutServer server;
+
+    private CheckoutServer start(int maxConcurrentRequests, int maxBodyBytes) throws IOException {
+        Amazon amazon = new Amazon(cart, List.of(new RegularCost(), new DeliveryPrice()));
+        Book book = new Book("123", 10, 2);
+        BarnesAndNoble bn = new BarnesAndNoble(ISBN -> ISBN.equals("123") ? book : null, (b, amount) -> { });
+
+        server = new CheckoutServer(new InetSocketAddress("localhost", 0), amazon, bn, maxConcurrentRequests, maxBodyBytes);
+        server.start();
+        return server;
+    }
+
+    @AfterEach
+    void stopServer() throws InterruptedException {
+        if (server != null) server.stop(Duration.ofSeconds(1));
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @Test
+    @DisplayName("specification-based: items added over HTTP are included in the quote")
+    void testAddThenQuote() throws Exception {
+        start(100, 1024);
+
+        assertEquals(200, post("/cart", "type=OTHER&name=Pen&quantity=2&price=1.5").statusCode());
+        assertEquals(200, post("/cart", "type=ELECTRONIC&name=Cable&quantity=1&price=4").statusCode());
+
+        HttpResponse<String> quote = get("/quote");
+        assertEquals(200, quote.statusCode());
+        assertEquals("12.00", quote.body()); // 7.00 of items + 5.00 delivery for 2 lines
+    }
+
+    @Test
+    @DisplayName("specification-based: checkout prices the order and lists unavailable copies")
+    void testCheckout() throws Exception {
+        start(100, 1024);
+
+        HttpResponse<String> response = post("/checkout", "123=5");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("total=0.20\nunavailable=123:3", response.body()); // book price is 10 cents
+    }
+
+    @Test
+    @DisplayName("specification-based: invalid input is answered with 400")
+    void testBadRequest() throws Exception {
+        start(100, 1024);
+
+        assertEquals(400, post("/checkout", "unknown=1").statusCode());
+        assertEquals(400, post("/cart", "type=OTHER&name=Pen").statusCode());
+        assertEquals(400, post("/cart", "type=OTHER&name=Pen&quantity=1&price=1.005").statusCode());
+        assertEquals(405, get("/checkout").statusCode());
+    }
+
+    @Test
+    @DisplayName("specification-based: non-positive quantities and negative prices are answered with 400")
+    void testRejectsOutOfRangeAmounts() throws Exception {
+        start(100, 1024);
+
+        assertEquals(400, post("/checkout", "123=-5").statusCode());
+        assertEquals(400, post("/checkout", "123=0").statusCode());
+        assertEquals(400, post("/cart", "type=OTHER&name=Pen&quantity=-3&price=10").statusCode());
+        assertEquals(400, post("/cart", "type=OTHER&name=Pen&quantity=1&price=-0.01").statusCode());
+        assertTrue(cart.items.isEmpty());
+        assertEquals("0.00", get("/quote").body());
+    }
+
+    @Test
+    @DisplayName("specification-based: a total too large to represent is answered with 400")
+    void testOverflowingTotalIsBadRequest() throws Exception {
+        start(100, 1024);
+
+        assertEquals(200, post("/cart", "type=OTHER&name=Gold&quantity=2147483647&price=92233720368547758.07").statusCode());
+        assertEquals(400, get("/quote").statusCode());
+    }
+
+    @Test
+    @DisplayName("structural-based: body over the configured limit is answered with 413")
+    void testBodyTooLarge() throws Exception {
+        start(100, 16);
+
+        assertEquals(413, post("/checkout", "123=1&123=1&123=1&123=1").statusCode());
+    }
+
+    @Test
+    @DisplayName("structural-based: requests over the concurrency limit are rejected with 503")
+    void testOverloaded() throws Exception {
+        start(1, 1024);
+        cart.gate = new CountDownLatch(1);
+
+        CompletableFuture<HttpResponse<String>> blocked =
+                client.sendAsync(HttpRequest.newBuilder(uri("/quote")).build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> rejected = null;
+        for (int i = 0; i < 50 && (rejected == null || rejected.statusCode() != 503); i++) {
+            Thread.sleep(20);
+            rejected = post("/checkout", "123=1");
+        }
+        cart.gate.countDown();
+
+        assertEquals(503, rejected.statusCode());
+        assertEquals(200, blocked.get(5, TimeUnit.SECONDS).statusCode());
+    }
+
+    @Test
+    @DisplayName("structural-based: quotes arriving during a calculation share the next one")
+    void testQuoteBatching() throws Exception {
+        cart.add(new Item(ItemType.OTHER, "Pen", 1, 200));
+        cart.gate = new CountDownLatch(1);
+        QuoteBatcher batcher = new QuoteBatcher(new Amazon(cart, List.of(new RegularCost())));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> quotes = new ArrayList<>();
+            quotes.add(callers.submit(batcher::quote));
+            while (!cart.entered) Thread.sleep(5);
+
+            for (int i = 0; i < 10; i++) quotes.add(callers.submit(batcher::quote));
+            while (batcher.queued() < 10) Thread.sleep(5);
+            cart.gate.countDown();
+
+            for (Future<Long> quote : quotes) assertEquals(200, quote.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, batcher.calculations()); // the first caller's, then one for the other ten
+    }
+
+    @Test
+    @DisplayName("specification-based: stopping the server answers quotes that were queued")
+    void testStopWithQueuedQuotes() throws Exception {
+        start(100, 1024);
+        cart.add(new Item(ItemType.OTHER, "Pen", 1, 200));
+        cart.gate = new CountDownLatch(1);
+
+        List<CompletableFuture<HttpResponse<String>>> quotes = new ArrayList<>();
+        quotes.add(client.sendAsync(HttpRequest.newBuilder(uri("/quote")).build(), HttpResponse.BodyHandlers.ofString()));
+        while (!cart.entered) Thread.sleep(5);
+        for (int i = 0; i < 5; i++)
+            quotes.add(client.sendAsync(HttpRequest.newBuilder(uri("/quote")).build(), HttpResponse.BodyHandlers.ofString()));
+        while (server.queuedQuotes() < 5) Thread.sleep(5);
+
+        CheckoutServer stopping = server;
+        server = null;
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(() -> {
+            try {
+                stopping.stop(Duration.ofMillis(500)); // rounds up, so the queued quotes are still drained
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(100);
+        cart.gate.countDown();
+
+        for (CompletableFuture<HttpResponse<String>> quote : quotes) {
+            HttpResponse<String> response = quote.get(5, TimeUnit.SECONDS);
+            assertEquals(200, response.statusCode());
+            assertEquals("7.00", response.body()); // 2.00 pen + 5.00 delivery
+        }
+        stopped.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("structural-based: an Error in a calculation does not wedge later quotes")
+    void testQuoteBatcherRecoversFromError() throws Exception {
+        cart.add(new Item(ItemType.OTHER, "Pen", 1, 200));
+        AtomicInteger calls = new AtomicInteger();
+        ShoppingCart failingOnce = new ShoppingCart() {
+            @Override
+            public void add(Item item) {
+            }
+
+            @Override
+            public List<Item> getItems() {
+                if (calls.getAndIncrement() == 0) throw new AssertionError("boom");
+                return cart.getItems();
+            }
+
+            @Override
+            public int numberOfItems() {
+                return 0;
+            }
+        };
+        QuoteBatcher batcher = new QuoteBatcher(new Amazon(failingOnce, List.of(new RegularCost())));
+
+        assertThrows(AssertionError.class, batcher::quote);
+        assertEquals(200, batcher.quote());
+    }
+}
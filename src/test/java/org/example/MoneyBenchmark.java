@@ -0,0 +1,52 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Sums price * quantity over a large order three ways: long cents with overflow checks
+ * ({@link Money}), plain {@code double} and {@link BigDecimal}. Prints the time per line
+ * and how far each total is from the exact one.
+ *
+ * Not run by the test suite. Usage: {@code java ... org.example.MoneyBenchmark [lines]} (default 5,000,000).
+ */
+public class MoneyBenchmark {
+
+    public static void main(String[] args) {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Random random = new Random(42);
+        long[] cents = new long[lines];
+        int[] quantities = new int[lines];
+        double[] dollars = new double[lines];
+        BigDecimal[] decimals = new BigDecimal[lines];
+        for (int i = 0; i < lines; i++) {
+            cents[i] = 1 + random.nextInt(100_000);
+            quantities[i] = 1 + random.nextInt(50);
+            dollars[i] = cents[i] / 100.0;
+            decimals[i] = BigDecimal.valueOf(cents[i], 2);
+        }
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            long exact = 0;
+            for (int i = 0; i < lines; i++) exact = Money.plus(exact, Money.times(cents[i], quantities[i]));
+            long longNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double approx = 0;
+            for (int i = 0; i < lines; i++) approx += dollars[i] * quantities[i];
+            long doubleNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BigDecimal decimal = BigDecimal.ZERO;
+            for (int i = 0; i < lines; i++) decimal = decimal.add(decimals[i].multiply(BigDecimal.valueOf(quantities[i])));
+            long decimalNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: long %.2f ns/line, double %.2f ns/line (off by %s), BigDecimal %.2f ns/line%n",
+                    round, longNanos / (double) lines, doubleNanos / (double) lines,
+                    BigDecimal.valueOf(approx).subtract(BigDecimal.valueOf(exact, 2)).toPlainString(),
+                    decimalNanos / (double) lines);
+            if (decimal.compareTo(BigDecimal.valueOf(exact, 2)) != 0) throw new AssertionError("long total differs");
+        }
+    }
+}
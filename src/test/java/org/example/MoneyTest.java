@@ -0,0 +1,38 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("specification-based: parse and format round-trip decimal amounts")
+    void testParseAndFormat() {
+        assertEquals(1250, Money.parse("12.5"));
+        assertEquals(7, Money.parse("0.07"));
+        assertEquals(-105, Money.parse("-1.05"));
+        assertEquals("12.50", Money.format(1250));
+        assertEquals("0.07", Money.format(7));
+        assertEquals("-1.05", Money.format(-105));
+        assertEquals("-92233720368547758.08", Money.format(Long.MIN_VALUE));
+        assertEquals("92233720368547758.07", Money.format(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("specification-based: fractions of a cent are rejected")
+    void testParseRejectsFractionalCents() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+    }
+
+    @Test
+    @DisplayName("structural-based: arithmetic throws on overflow")
+    void testOverflowChecks() {
+        assertEquals(300, Money.plus(100, 200));
+        assertEquals(600, Money.times(200, 3));
+        assertThrows(ArithmeticException.class, () -> Money.plus(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+}